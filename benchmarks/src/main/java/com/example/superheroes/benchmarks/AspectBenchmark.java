@@ -0,0 +1,64 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.annotation.ExecutionTime;
+import com.example.superheroes.annotation.ExecutionTimeAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the ExecutionTimeAspect proxy around an @ExecutionTime method that does almost nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectBenchmark {
+
+    private Measured plain;
+
+    private Measured proxied;
+
+    private long value;
+
+    @Setup
+    public void setUp() {
+        plain = new Measured();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Measured());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ExecutionTimeAspect(new SimpleMeterRegistry(), Duration.ofSeconds(1)));
+        proxied = factory.getProxy();
+    }
+
+    @Benchmark
+    public long plainCall() {
+        return plain.increment(value++);
+    }
+
+    @Benchmark
+    public long proxiedCall() {
+        return proxied.increment(value++);
+    }
+
+    public static class Measured {
+
+        @ExecutionTime
+        public long increment(long value) {
+            return value + 1;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.benchmark.SuperheroNameGenerator;
+import com.example.superheroes.model.Superhero;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic data shared by the benchmarks, generated like the data of the functional benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates superheroes with ids from 1 to size.
+     *
+     * @param size The number of superheroes.
+     * @return The superheroes.
+     */
+    static List<Superhero> superheroes(int size) {
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        List<Superhero> superheroes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            superheroes.add(new Superhero(id, generator.next()));
+        }
+        return superheroes;
+    }
+}
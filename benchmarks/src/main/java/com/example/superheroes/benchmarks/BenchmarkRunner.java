@@ -0,0 +1,29 @@
+package com.example.superheroes.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks with the usual JMH command line, writing the results as JSON to jmh-result.json
+ * unless another result format or file is given, so runs can be compared with each other.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        boolean resultGiven = Arrays.stream(args).anyMatch(arg -> arg.startsWith("-rf"));
+        if (!resultGiven) {
+            options.resultFormat(ResultFormatType.JSON);
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.cache.SuperheroCache;
+import com.example.superheroes.config.CacheManagerConfig;
+import com.example.superheroes.config.SuperheroCacheProperties;
+import com.example.superheroes.model.Superhero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit and miss paths of the Caffeine caches, through Spring's cache abstraction and through SuperheroCache,
+ * configured as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+
+    private static final long HOT_IDS = 1_000;
+
+    private Cache byId;
+
+    private SuperheroCache superheroCache;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    private final AtomicLong missIds = new AtomicLong(HOT_IDS);
+
+    @Setup
+    public void setUp() {
+        SuperheroCacheProperties properties = new SuperheroCacheProperties();
+        CacheManager cacheManager = new CacheManagerConfig().cacheManager(properties);
+        byId = cacheManager.getCache(SuperheroCache.BY_ID_CACHE);
+        superheroCache = new SuperheroCache(cacheManager, properties);
+        List<Superhero> superheroes = BenchmarkData.superheroes((int) HOT_IDS);
+        for (Superhero superhero : superheroes) {
+            byId.put(superhero.getId(), superhero);
+            superheroCache.findById(superhero.getId(), () -> Optional.of(superhero));
+        }
+        Page<Superhero> page = new PageImpl<>(superheroes.subList(0, 20), pageable, HOT_IDS);
+        superheroCache.findAll(pageable, () -> page);
+    }
+
+    @Benchmark
+    public Object springCacheHit() {
+        return byId.get(ThreadLocalIds.next(HOT_IDS));
+    }
+
+    @Benchmark
+    public Object springCacheMissAndPut() {
+        long id = missIds.incrementAndGet();
+        Cache.ValueWrapper cached = byId.get(id);
+        if (cached == null) {
+            byId.put(id, new Superhero(id, "Missed"));
+        }
+        return cached;
+    }
+
+    @Benchmark
+    public Optional<Superhero> superheroCacheFindByIdHit() {
+        return superheroCache.findById(ThreadLocalIds.next(HOT_IDS), Optional::empty);
+    }
+
+    @Benchmark
+    public Page<Superhero> superheroCacheFindAllHit() {
+        return superheroCache.findAll(pageable, () -> {
+            throw new IllegalStateException("The page must be cached");
+        });
+    }
+
+    /**
+     * Cycles through the hot ids without contending on a shared counter.
+     */
+    private static final class ThreadLocalIds {
+
+        private static final ThreadLocal<long[]> NEXT = ThreadLocal.withInitial(() -> new long[1]);
+
+        static long next(long bound) {
+            long[] next = NEXT.get();
+            next[0] = next[0] % bound + 1;
+            return next[0];
+        }
+    }
+}
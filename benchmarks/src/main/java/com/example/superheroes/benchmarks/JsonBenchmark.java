@@ -0,0 +1,102 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.config.CompactPageHttpMessageConverter;
+import com.example.superheroes.dto.RenderedPage;
+import com.example.superheroes.dto.SuperheroDto;
+import com.example.superheroes.mapper.SuperheroMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of a Page of SuperheroDto, the body of every listing response.
+ * A plain page is serialized from scratch, while a cached RenderedPage reuses its JSON.
+ * The compact envelope is streamed without the pageable and sort metadata, and gzip measures the cost of the
+ * response compression. The bytes on the wire of each representation are printed by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    /**
+     * Configured like the ObjectMapper of the application.
+     */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<SuperheroDto> page;
+
+    private RenderedPage<SuperheroDto> renderedPage;
+
+    private final CompactPageHttpMessageConverter compactConverter = new CompactPageHttpMessageConverter(objectMapper);
+
+    @Setup
+    public void setUp() throws IOException {
+        page = new SuperheroMapperImpl().mapEntityPageToDtoPage(
+                new PageImpl<>(BenchmarkData.superheroes(size), PageRequest.of(0, size), size * 10L));
+        renderedPage = new RenderedPage<>(page);
+        objectMapper.writeValueAsBytes(renderedPage);
+        System.out.printf("%n%,5d superheroes | default %,8d B, gzip %,7d B | compact %,8d B, gzip %,7d B%n", size,
+                serializePage().length, gzip(serializePage()).length,
+                serializeCompactPage().length, gzip(serializeCompactPage()).length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeRenderedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(renderedPage);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactPage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compactConverter.write(page, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeCompactPageGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            compactConverter.write(page, gzip);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
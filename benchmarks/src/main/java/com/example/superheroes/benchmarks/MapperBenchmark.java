@@ -0,0 +1,56 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.dto.SuperheroDto;
+import com.example.superheroes.mapper.SuperheroMapperImpl;
+import com.example.superheroes.model.Superhero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of pages of entities to pages of DTOs, as done for every listing response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private final SuperheroMapperImpl mapper = new SuperheroMapperImpl();
+
+    private Page<Superhero> page;
+
+    @Setup
+    public void setUp() {
+        page = new PageImpl<>(BenchmarkData.superheroes(size), PageRequest.of(0, size), size * 10L);
+    }
+
+    @Benchmark
+    public Page<SuperheroDto> mapEntityPageToDtoPage() {
+        return mapper.mapEntityPageToDtoPage(page);
+    }
+
+    @Benchmark
+    public Slice<SuperheroDto> mapEntitySliceToDtoSlice() {
+        return mapper.mapEntitySliceToDtoSlice(page);
+    }
+}
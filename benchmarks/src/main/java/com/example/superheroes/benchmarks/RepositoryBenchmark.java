@@ -0,0 +1,106 @@
+package com.example.superheroes.benchmarks;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.benchmark.SuperheroNameGenerator;
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SuperheroRepository name searches against H2 at several table sizes, with and without the count query of a Page.
+ * The repository comes from the application context, so the queries are the ones generated in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RepositoryBenchmark {
+
+    private static final int TERMS = 256;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+
+    private SuperheroRepository repository;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    private String[] terms;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SuperheroesApplication.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark" + size,
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(SuperheroRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(7);
+        terms = new String[TERMS];
+        for (int i = 0; i < TERMS; i++) {
+            terms[i] = generator.nextSearchTerm();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Superhero> findAllByNameContainingIgnoreCase() {
+        return repository.findAllByNameContainingIgnoreCase(nextTerm(), pageable);
+    }
+
+    @Benchmark
+    public Slice<Superhero> findSliceByNameContainingIgnoreCase() {
+        return repository.findSliceByNameContainingIgnoreCase(nextTerm(), pageable);
+    }
+
+    private String nextTerm() {
+        next = (next + 1) % TERMS;
+        return terms[next];
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> batch = new ArrayList<>();
+        for (Superhero superhero : BenchmarkData.superheroes(size)) {
+            batch.add(new Object[]{superhero.getId(), superhero.getName()});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+    }
+}
@@ -1,24 +1,62 @@
 package com.example.superheroes.annotation;
 
+import com.example.superheroes.cache.CacheOutcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 
 /**
  * A custom Aspect for measuring the execution time of methods annotated with @ExecutionTime.
+ * Every call is recorded in a Micrometer timer with a percentile histogram, tagged by method, outcome and cache
+ * outcome, and only the calls slower than superheroes.metrics.slow-threshold are logged.
  */
 @Component
 @Aspect
 @Slf4j
 public class ExecutionTimeAspect {
 
+    /**
+     * Name of the timers of the @ExecutionTime methods.
+     */
+    public static final String TIMER_NAME = "superheroes.method.execution";
+
+    private static final String[] OUTCOMES = {"success", "error"};
+    private static final int SUCCESS = 0;
+    private static final int ERROR = 1;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private final MeterRegistry registry;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * Timers of each method, indexed by outcome and cache outcome, so a call doesn't build tags nor look up the registry.
+     * Each timer is registered on its first use, so combinations that never happen don't publish a histogram.
+     */
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public ExecutionTimeAspect(MeterRegistry registry, @Value("${superheroes.metrics.slow-threshold:500ms}") Duration slowThreshold) {
+        this.registry = registry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
     /**
      * Measures the execution time of methods annotated with @ExecutionTime.
      *
@@ -29,16 +67,44 @@ public class ExecutionTimeAspect {
      */
     @Around("@annotation(executionTime)")
     public Object measureExecutionTime(ProceedingJoinPoint joinPoint, ExecutionTime executionTime) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        Object result = joinPoint.proceed();
-        long endTime = System.currentTimeMillis();
-        long executionTimeMillis  = endTime - startTime;
-
-        String methodName = joinPoint.getSignature().toShortString();
-        String message = "Method " + methodName + " execute in " + executionTimeMillis + "ms";
-
-        logger.info(message);
+        CacheOutcome outer = CacheOutcome.swap(CacheOutcome.NONE);
+        int outcome = ERROR;
+        long startTime = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            long executionTimeNanos = System.nanoTime() - startTime;
+            CacheOutcome cacheOutcome = CacheOutcome.swap(outer);
+            timer(((MethodSignature) joinPoint.getSignature()).getMethod(), outcome, cacheOutcome)
+                    .record(executionTimeNanos, TimeUnit.NANOSECONDS);
+            if (executionTimeNanos > slowThresholdNanos) {
+                logger.warn("Slow call: method {} executed in {} ms with {} outcome and cache {}",
+                        joinPoint.getSignature().toShortString(), TimeUnit.NANOSECONDS.toMillis(executionTimeNanos),
+                        OUTCOMES[outcome], cacheOutcome);
+            }
+        }
+    }
 
-        return result;
+    /**
+     * Returns the timer of a method, outcome and cache outcome, registering it the first time it's used.
+     * Concurrent first calls may both register it, which is harmless since the registry returns the same timer.
+     */
+    private Timer timer(Method method, int outcome, CacheOutcome cacheOutcome) {
+        Timer[] methodTimers = timers.computeIfAbsent(method, m -> new Timer[OUTCOMES.length * CacheOutcome.values().length]);
+        int slot = outcome * CacheOutcome.values().length + cacheOutcome.ordinal();
+        Timer timer = methodTimers[slot];
+        if (timer == null) {
+            timer = Timer.builder(TIMER_NAME)
+                    .description("Execution time of the @ExecutionTime methods")
+                    .tag("method", method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                    .tag("outcome", OUTCOMES[outcome])
+                    .tag("cache", cacheOutcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry);
+            methodTimers[slot] = timer;
+        }
+        return timer;
     }
 }
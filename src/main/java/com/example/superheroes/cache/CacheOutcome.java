@@ -0,0 +1,30 @@
+package com.example.superheroes.cache;
+
+/**
+ * Remembers, for the current thread, whether the last cached read was served from the cache or loaded.
+ * The execution time metrics read it to tell the latency of hits from the latency of misses.
+ */
+public enum CacheOutcome {
+    HIT, MISS, NONE;
+
+    private static final ThreadLocal<CacheOutcome> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    /**
+     * Records the outcome of a cached read of the current thread.
+     */
+    void record() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Replaces the outcome of the current thread.
+     *
+     * @param outcome The new outcome.
+     * @return The previous outcome, to restore it once a nested measurement finishes.
+     */
+    public static CacheOutcome swap(CacheOutcome outcome) {
+        CacheOutcome previous = CURRENT.get();
+        CURRENT.set(outcome);
+        return previous;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.superheroes.cache;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of a page stored in the cache.
+ * Its content is a detached copy of the loaded page, and it remembers the representation rendered
+ * from it the first time it is served, so cache hits don't pay for mapping and serialization again.
+ *
+ * @param <T> The type of the page elements.
+ */
+public class CachedPage<T> extends PageImpl<T> {
+
+    private transient volatile Object rendered;
+
+    private CachedPage(List<T> content, Page<T> page) {
+        super(content, page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Takes a snapshot of a loaded page.
+     *
+     * @param page The loaded page.
+     * @param copy Copies an element detaching it from the persistence context.
+     * @param <T>  The type of the page elements.
+     * @return The snapshot of the page.
+     */
+    public static <T> CachedPage<T> of(Page<T> page, UnaryOperator<T> copy) {
+        return new CachedPage<>(page.getContent().stream().map(copy).collect(Collectors.toList()), page);
+    }
+
+    /**
+     * Returns the representation of this page, rendering it only the first time.
+     * Concurrent first calls may render it more than once, but all the renders are equivalent.
+     *
+     * @param renderer Renders the page.
+     * @param <R>      The type of the representation.
+     * @return The representation of this page.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R render(Function<? super Page<T>, R> renderer) {
+        Object result = rendered;
+        if (result == null) {
+            result = renderer.apply(this);
+            rendered = result;
+        }
+        return (R) result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.superheroes.cache;
+
+import lombok.Value;
+
+/**
+ * Cache key of the number of superheroes matching a name search, shared by every page of the search.
+ * The search is case-insensitive, so the name is normalized like in {@link SearchKey}.
+ */
+@Value
+public class CountKey {
+
+    String name;
+
+    /**
+     * Builds the key of the count of the given search.
+     *
+     * @param name The searched name.
+     * @return The key of the count.
+     */
+    public static CountKey of(String name) {
+        return new CountKey(SearchKey.normalize(name));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.superheroes.cache;
+
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Cache key of a listing page: page number, page size and sort.
+ */
+@Value
+public class PageKey {
+
+    int page;
+    int size;
+    Sort sort;
+
+    /**
+     * Builds the key of the given page request.
+     *
+     * @param pageable The requested page.
+     * @return The key of the page.
+     */
+    public static PageKey of(Pageable pageable) {
+        return pageable.isPaged()
+                ? new PageKey(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort())
+                : new PageKey(0, Integer.MAX_VALUE, pageable.getSort());
+    }
+
+    /**
+     * Whether the page is sorted by any property other than the id, so a rename can change its content.
+     *
+     * @return True if the page order depends on something other than the id.
+     */
+    public boolean isReorderable() {
+        return sort.stream().anyMatch(order -> !"id".equals(order.getProperty()));
+    }
+}
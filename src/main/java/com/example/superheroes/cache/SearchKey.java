@@ -0,0 +1,42 @@
+package com.example.superheroes.cache;
+
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * Cache key of a name search page: normalized name, page number, page size and sort.
+ * The search is case-insensitive, so the name is lower-cased and "Man" and "man" share an entry.
+ */
+@Value
+public class SearchKey {
+
+    String name;
+    int page;
+    int size;
+    Sort sort;
+
+    /**
+     * Builds the key of the given search.
+     *
+     * @param name     The searched name.
+     * @param pageable The requested page.
+     * @return The key of the search page.
+     */
+    public static SearchKey of(String name, Pageable pageable) {
+        PageKey pageKey = PageKey.of(pageable);
+        return new SearchKey(normalize(name), pageKey.getPage(), pageKey.getSize(), pageKey.getSort());
+    }
+
+    /**
+     * Normalizes a name the way the case-insensitive search compares it.
+     *
+     * @param name The name to normalize.
+     * @return The lower-cased name.
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
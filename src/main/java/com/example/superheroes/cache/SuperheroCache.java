@@ -0,0 +1,573 @@
+package com.example.superheroes.cache;
+
+import com.example.superheroes.config.SuperheroCacheProperties;
+import com.example.superheroes.model.Superhero;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Write-through cache for superheroes.
+ * Reads go through the cache, and every write keeps it coherent: the per-id entry is replaced in place
+ * and only the page and search entries affected by the write are evicted, using a {@link SuperheroCacheIndex}.
+ * The cache never holds managed entities: superheroes are stored as detached copies and pages as
+ * {@link CachedPage} snapshots, which also keep their rendered representation.
+ * Page totals don't need a count query per page: the total number of superheroes is a counter maintained
+ * by the writes, and the number of matches of each search is cached with the search pages.
+ * Concurrent misses of the same entry share a single load, and hits on entries older than their refresh age
+ * reload them in the background, so hot entries are replaced before they expire instead of all missing at once.
+ */
+@Slf4j
+@Component
+public class SuperheroCache {
+
+    /**
+     * Name of the cache holding superheroes by id.
+     */
+    public static final String BY_ID_CACHE = "superheroById";
+
+    /**
+     * Name of the cache holding full listing pages.
+     */
+    public static final String PAGES_CACHE = "superheroPages";
+
+    /**
+     * Name of the cache holding name search pages.
+     */
+    public static final String SEARCH_CACHE = "superheroSearch";
+
+    private static final long UNKNOWN = -1;
+
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_CAPACITY = 1_000;
+
+    private final Cache byId;
+    private final Cache pages;
+    private final Cache search;
+    private final SuperheroCacheIndex index;
+    private final Duration byIdRefresh;
+    private final Duration pagesRefresh;
+    private final Duration searchRefresh;
+
+    /**
+     * Loads in progress by key, shared by the callers that miss the same entry at the same generation.
+     */
+    private final Map<Object, Load> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Keys with a background refresh queued or running, so a hot entry is refreshed once.
+     */
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Runs the refreshes. They are best effort: when the queue is full, the refresh is dropped and the entry may expire.
+     */
+    private final ThreadPoolExecutor refresher;
+
+    /**
+     * Incremented on every write, so a load that raced with a write is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Loads check the generation and store their value under the read lock, and write hooks bump it and
+     * invalidate under the write lock, so a hook can't run between the check and the store of a load.
+     */
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+
+    /**
+     * Random for each instance, so the modification stamps issued before a restart don't match the ones after it.
+     * It also makes the stamps of two instances differ, see {@link #modificationStamp()}.
+     */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    /**
+     * Number of writes in progress, so a count that may already include one of them is not kept.
+     */
+    private final AtomicInteger writes = new AtomicInteger();
+
+    /**
+     * Total number of superheroes, or UNKNOWN until it is first counted. Guarded by totalLock.
+     */
+    private long total = UNKNOWN;
+    private final Object totalLock = new Object();
+
+    public SuperheroCache(CacheManager cacheManager, SuperheroCacheProperties properties) {
+        this.byId = cacheManager.getCache(BY_ID_CACHE);
+        this.pages = cacheManager.getCache(PAGES_CACHE);
+        this.search = cacheManager.getCache(SEARCH_CACHE);
+        // The caches can't hold more ids than their weight, so twice as much bounds the stale registrations
+        long maxWeight = properties.getPages().getMaximumWeight() + properties.getSearch().getMaximumWeight();
+        this.index = new SuperheroCacheIndex((int) Math.min(Integer.MAX_VALUE, 2 * maxWeight));
+        this.byIdRefresh = properties.getById().getRefreshAfterWrite();
+        this.pagesRefresh = properties.getPages().getRefreshAfterWrite();
+        this.searchRefresh = properties.getSearch().getRefreshAfterWrite();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("superhero-cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.refresher = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), threadFactory);
+    }
+
+    /**
+     * Stops the background refreshes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the cached superhero with the given id, loading it on a miss.
+     *
+     * @param id     The id of the superhero.
+     * @param loader Loads the superhero from the database.
+     * @return An Optional containing the superhero if it exists.
+     */
+    public Optional<Superhero> findById(Long id, Supplier<Optional<Superhero>> loader) {
+        Cache.ValueWrapper cached = byId.get(id);
+        if (cached != null) {
+            CacheOutcome.HIT.record();
+            refreshIfDue(byId, id, byIdRefresh, () -> loadById(id, loader));
+            return Optional.ofNullable((Superhero) cached.get());
+        }
+        CacheOutcome.MISS.record();
+        return loadById(id, loader);
+    }
+
+    /**
+     * Returns the superheroes with the given ids in the same order, serving the cached ones
+     * and loading all the others at once. Ids that don't exist are left out and cached as missing.
+     *
+     * @param ids    The ids of the superheroes.
+     * @param loader Loads the superheroes with the given ids from the database.
+     * @return The superheroes that exist, in the order of their ids.
+     */
+    public List<Superhero> findAllById(List<Long> ids, Function<Collection<Long>, List<Superhero>> loader) {
+        Map<Long, Optional<Superhero>> found = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = byId.get(id);
+            if (cached != null) {
+                found.put(id, Optional.ofNullable((Superhero) cached.get()));
+            } else {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            CacheOutcome.HIT.record();
+        } else {
+            CacheOutcome.MISS.record();
+            long loadGeneration = generation.get();
+            Map<Long, Optional<Superhero>> loaded = new HashMap<>();
+            misses.forEach(id -> loaded.put(id, Optional.empty()));
+            loader.apply(misses).forEach(superhero -> loaded.put(superhero.getId(), Optional.of(detach(superhero))));
+            storeIfCurrent(loadGeneration, () -> loaded.forEach((id, superhero) -> byId.put(id, superhero.orElse(null))));
+            found.putAll(loaded);
+        }
+        return ids.stream().map(found::get).flatMap(Optional::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the cached listing page, loading it on a miss.
+     *
+     * @param pageable The requested page.
+     * @param loader   Loads the page from the database.
+     * @return The page of superheroes.
+     */
+    @SuppressWarnings("unchecked")
+    public Page<Superhero> findAll(Pageable pageable, Supplier<Page<Superhero>> loader) {
+        PageKey key = PageKey.of(pageable);
+        Page<Superhero> cached = pages.get(key, Page.class);
+        if (cached != null) {
+            CacheOutcome.HIT.record();
+            refreshIfDue(pages, key, pagesRefresh, () -> loadListing(key, loader));
+            return cached;
+        }
+        CacheOutcome.MISS.record();
+        return loadListing(key, loader);
+    }
+
+    /**
+     * Returns the cached name search page, loading it on a miss.
+     *
+     * @param name     The searched name.
+     * @param pageable The requested page.
+     * @param loader   Loads the page from the database.
+     * @return The page of matching superheroes.
+     */
+    @SuppressWarnings("unchecked")
+    public Page<Superhero> findAllByName(String name, Pageable pageable, Supplier<Page<Superhero>> loader) {
+        SearchKey key = SearchKey.of(name, pageable);
+        Page<Superhero> cached = search.get(key, Page.class);
+        if (cached != null) {
+            CacheOutcome.HIT.record();
+            refreshIfDue(search, key, searchRefresh, () -> loadSearch(key, loader));
+            return cached;
+        }
+        CacheOutcome.MISS.record();
+        return loadSearch(key, loader);
+    }
+
+    /**
+     * Returns the total number of superheroes, counting them only the first time.
+     * The counter is then kept up to date by the creations and deletions.
+     *
+     * @param loader Counts the superheroes in the database.
+     * @return The total number of superheroes.
+     */
+    public long count(LongSupplier loader) {
+        synchronized (totalLock) {
+            if (total != UNKNOWN) {
+                return total;
+            }
+        }
+        long loadGeneration = generation.get();
+        boolean noWrites = writes.get() == 0;
+        long count = loader.getAsLong();
+        synchronized (totalLock) {
+            // A write that started meanwhile would be counted twice: by the query and by its hook
+            if (noWrites && generation.get() == loadGeneration && total == UNKNOWN) {
+                total = count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the cached number of superheroes matching a name search, counting them on a miss.
+     * It's evicted by the writes of a superhero whose name matches the search.
+     *
+     * @param name   The searched name.
+     * @param loader Counts the matching superheroes in the database.
+     * @return The number of matching superheroes.
+     */
+    public long countByName(String name, LongSupplier loader) {
+        CountKey key = CountKey.of(name);
+        Long cached = search.get(key, Long.class);
+        if (cached != null) {
+            return cached;
+        }
+        return load(key, loader::getAsLong, count -> {
+            search.put(key, count);
+            if (!index.registerSearch(key.getName(), key, List.of())) {
+                clearPages();
+            }
+        });
+    }
+
+    /**
+     * Returns a stamp of the whole table, which changes with every write that goes through this cache.
+     * Read before loading a listing, it can't be newer than the listing, so it can validate it.
+     * Like the cached entries, it doesn't see writes made outside the service.
+     * It's only meaningful within this instance: it's made of a random epoch and a counter of its own writes,
+     * so a listing ETag never matches after a restart nor on another instance behind the same load balancer.
+     * Conditional listings only save work on a single long-lived instance, or with sticky sessions.
+     * Single entities don't have this limit, their ETags come from the version column.
+     *
+     * @return The current modification stamp.
+     */
+    public String modificationStamp() {
+        return epoch + "-" + generation.get();
+    }
+
+    /**
+     * Runs a write to the database together with its cache hook, e.g. a save followed by {@link #created(Superhero)}.
+     * While it runs, counts loaded concurrently are returned but not kept, since they may already include the write.
+     *
+     * @param write The write and its hook.
+     * @param <T>   The type of the result of the write.
+     * @return The result of the write.
+     */
+    public <T> T writing(Supplier<T> write) {
+        writes.incrementAndGet();
+        generation.incrementAndGet();
+        try {
+            return write.get();
+        } finally {
+            writes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps the cache coherent after a superhero has been created.
+     * Every listing page may shift, as well as the searches matching the new name.
+     *
+     * @param superhero The created superhero.
+     */
+    public void created(Superhero superhero) {
+        invalidating(() -> {
+            addToTotal(1);
+            byId.put(superhero.getId(), detach(superhero));
+            clearListingPages();
+            evict(index.drainSearchPagesMatching(superhero.getName()));
+        });
+    }
+
+    /**
+     * Keeps the cache coherent after a superhero has been updated.
+     * The pages holding it are evicted, as well as the listing pages that may reorder
+     * and the searches that may now match the new name or no longer match the previous one.
+     *
+     * @param previousName The name of the superhero before the update.
+     * @param superhero    The updated superhero.
+     */
+    public void updated(String previousName, Superhero superhero) {
+        invalidating(() -> {
+            byId.put(superhero.getId(), detach(superhero));
+            evict(index.drainPagesContaining(superhero.getId()));
+            evict(index.drainListingPages(true));
+            evict(index.drainSearchPagesMatching(superhero.getName()));
+            if (previousName != null && !previousName.equals(superhero.getName())) {
+                evict(index.drainSearchPagesMatching(previousName));
+            }
+        });
+    }
+
+    /**
+     * Keeps the cache coherent after a superhero has been deleted.
+     * Every listing page may shift, as well as the searches matching the deleted name.
+     *
+     * @param superhero The deleted superhero.
+     */
+    public void deleted(Superhero superhero) {
+        invalidating(() -> {
+            addToTotal(-1);
+            byId.evict(superhero.getId());
+            evict(index.drainPagesContaining(superhero.getId()));
+            clearListingPages();
+            evict(index.drainSearchPagesMatching(superhero.getName()));
+        });
+    }
+
+    /**
+     * Keeps the cache coherent after a batch write.
+     * A batch touches too many entries to evict them one by one, so every page and search is cleared.
+     *
+     * @param written    The created and updated superheroes.
+     * @param deletedIds The ids of the deleted superheroes.
+     * @param totalDelta The number of created superheroes minus the number of deleted ones.
+     */
+    public void batchWritten(Collection<Superhero> written, Collection<Long> deletedIds, long totalDelta) {
+        invalidating(() -> {
+            addToTotal(totalDelta);
+            written.forEach(superhero -> byId.put(superhero.getId(), detach(superhero)));
+            deletedIds.forEach(byId::evict);
+            clearPages();
+        });
+    }
+
+    private Optional<Superhero> loadById(Long id, Supplier<Optional<Superhero>> loader) {
+        return load(id, () -> loader.get().map(SuperheroCache::detach), superhero -> byId.put(id, superhero.orElse(null)));
+    }
+
+    private Page<Superhero> loadListing(PageKey key, Supplier<Page<Superhero>> loader) {
+        return load(key, () -> CachedPage.of(loader.get(), SuperheroCache::detach), page -> {
+            pages.put(key, page);
+            if (!index.registerListing(key, idsOf(page))) {
+                clearPages();
+            }
+        });
+    }
+
+    private Page<Superhero> loadSearch(SearchKey key, Supplier<Page<Superhero>> loader) {
+        return load(key, () -> CachedPage.of(loader.get(), SuperheroCache::detach), page -> {
+            search.put(key, page);
+            if (!index.registerSearch(key.getName(), key, idsOf(page))) {
+                clearPages();
+            }
+        });
+    }
+
+    /**
+     * Loads the value of a key, or waits for the load of the same key already in progress.
+     * A load in progress is only shared if no write started since it began, so a caller never
+     * gets a value older than the writes that completed before it asked.
+     * The value is stored only if no write happened while it was loaded, see {@link #storeIfCurrent(long, Runnable)}.
+     *
+     * @param key    The cache key.
+     * @param loader Loads the value from the database.
+     * @param store  Stores the loaded value in the cache.
+     * @param <T>    The type of the value.
+     * @return The loaded value.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, Supplier<T> loader, Consumer<T> store) {
+        long loadGeneration = generation.get();
+        Load own = new Load(loadGeneration);
+        Load load = loads.compute(key, (k, current) -> current != null && current.generation == loadGeneration ? current : own);
+        if (load != own) {
+            try {
+                return (T) load.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            T value = loader.get();
+            storeIfCurrent(loadGeneration, () -> store.accept(value));
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, own);
+        }
+    }
+
+    /**
+     * Stores a loaded value unless a write happened since the load began.
+     * The check and the store hold the read lock, so the hook of a write that completes meanwhile
+     * runs after the store and invalidates it, instead of being overwritten with the value it replaced.
+     */
+    private void storeIfCurrent(long loadGeneration, Runnable store) {
+        Lock lock = storeLock.readLock();
+        lock.lock();
+        try {
+            if (generation.get() == loadGeneration) {
+                store.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the cache hook of a write: bumps the generation, so loads in progress are not stored, then invalidates.
+     */
+    private void invalidating(Runnable invalidation) {
+        Lock lock = storeLock.writeLock();
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            invalidation.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads an entry in the background once it's older than the refresh age, while the hit keeps its current value.
+     */
+    private void refreshIfDue(Cache cache, Object key, Duration refreshAfterWrite, Runnable refresh) {
+        if (refreshAfterWrite == null || loads.containsKey(key) || ageOf(cache, key) < refreshAfterWrite.toNanos()
+                || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh the cache entry {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * Returns how long ago the entry was written, or 0 if the cache doesn't tell.
+     */
+    @SuppressWarnings("unchecked")
+    private static long ageOf(Cache cache, Object key) {
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)) {
+            return 0;
+        }
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache()).policy()
+                .expireAfterWrite()
+                .map(expiration -> expiration.ageOf(key, TimeUnit.NANOSECONDS).orElse(0))
+                .orElse(0L);
+    }
+
+    /**
+     * Evicts the given page keys from the cache they belong to.
+     */
+    private void evict(Set<Object> keys) {
+        for (Object key : keys) {
+            if (key instanceof SearchKey || key instanceof CountKey) {
+                search.evict(key);
+            } else {
+                pages.evict(key);
+            }
+        }
+    }
+
+    private void addToTotal(long delta) {
+        synchronized (totalLock) {
+            if (total != UNKNOWN) {
+                total += delta;
+            }
+        }
+    }
+
+    private void clearListingPages() {
+        index.drainListingPages(false);
+        pages.clear();
+    }
+
+    private void clearPages() {
+        generation.incrementAndGet();
+        index.clear();
+        pages.clear();
+        search.clear();
+    }
+
+    /**
+     * Copies a superhero so the cached value is not shared with a persistence context or a caller.
+     */
+    private static Superhero detach(Superhero superhero) {
+        return new Superhero(superhero.getId(), superhero.getName(), superhero.getVersion());
+    }
+
+    private static List<Long> idsOf(Page<Superhero> page) {
+        return page.getContent().stream().map(Superhero::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * A load in progress, with the generation it started at.
+     */
+    private static class Load extends CompletableFuture<Object> {
+
+        private final long generation;
+
+        Load(long generation) {
+            this.generation = generation;
+        }
+    }
+}
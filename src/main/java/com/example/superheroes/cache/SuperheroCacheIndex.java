@@ -0,0 +1,121 @@
+package com.example.superheroes.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reverse index from superhero ids to the cached page keys whose content contains them.
+ * It also remembers which listing and search keys have been cached, so writes can invalidate
+ * exactly the entries they affect instead of waiting for them to expire.
+ */
+public class SuperheroCacheIndex {
+
+    private final Map<Long, Set<Object>> pagesById = new ConcurrentHashMap<>();
+    private final Set<Object> listingPages = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Object>> searchPagesByTerm = new ConcurrentHashMap<>();
+    private final AtomicInteger registrations = new AtomicInteger();
+    private final int maxRegistrations;
+
+    /**
+     * @param maxRegistrations Upper bound of tracked (id, page) pairs before the index asks to be reset.
+     */
+    public SuperheroCacheIndex(int maxRegistrations) {
+        this.maxRegistrations = maxRegistrations;
+    }
+
+    /**
+     * Registers a cached listing page.
+     *
+     * @param key The cache key of the page.
+     * @param ids The ids contained in the page.
+     * @return false if the index grew over its bound and should be reset.
+     */
+    public boolean registerListing(Object key, Collection<Long> ids) {
+        listingPages.add(key);
+        return registerIds(key, ids);
+    }
+
+    /**
+     * Registers a cached name search page.
+     *
+     * @param term The searched name.
+     * @param key  The cache key of the page.
+     * @param ids  The ids contained in the page.
+     * @return false if the index grew over its bound and should be reset.
+     */
+    public boolean registerSearch(String term, Object key, Collection<Long> ids) {
+        searchPagesByTerm.computeIfAbsent(SearchKey.normalize(term), t -> ConcurrentHashMap.newKeySet()).add(key);
+        return registerIds(key, ids);
+    }
+
+    /**
+     * Removes and returns the keys of the pages that contain the given id.
+     *
+     * @param id The superhero id.
+     * @return The keys of the cached pages containing the id.
+     */
+    public Set<Object> drainPagesContaining(Long id) {
+        Set<Object> keys = pagesById.remove(id);
+        return keys != null ? keys : Set.of();
+    }
+
+    /**
+     * Removes and returns the keys of the listing pages. When onlyReorderable is true, only the
+     * listing pages sorted by something other than the id are returned, since only those can
+     * change their order when a name changes.
+     *
+     * @param onlyReorderable Whether to restrict to listing pages sorted by a property other than id.
+     * @return The keys of the affected listing pages.
+     */
+    public Set<Object> drainListingPages(boolean onlyReorderable) {
+        Set<Object> keys = new HashSet<>();
+        for (Object key : listingPages) {
+            if (!onlyReorderable || (key instanceof PageKey && ((PageKey) key).isReorderable())) {
+                keys.add(key);
+            }
+        }
+        listingPages.removeAll(keys);
+        return keys;
+    }
+
+    /**
+     * Removes and returns the keys of the search pages whose term is contained in the given name,
+     * i.e. the searches whose result set can change when a superhero with that name is written.
+     *
+     * @param name The name of the written superhero.
+     * @return The keys of the affected search pages.
+     */
+    public Set<Object> drainSearchPagesMatching(String name) {
+        Set<Object> keys = new HashSet<>();
+        String normalizedName = SearchKey.normalize(name);
+        searchPagesByTerm.entrySet().removeIf(entry -> {
+            if (normalizedName.contains(entry.getKey())) {
+                keys.addAll(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        return keys;
+    }
+
+    /**
+     * Forgets every tracked key.
+     */
+    public void clear() {
+        pagesById.clear();
+        listingPages.clear();
+        searchPagesByTerm.clear();
+        registrations.set(0);
+    }
+
+    private boolean registerIds(Object key, Collection<Long> ids) {
+        for (Long id : ids) {
+            pagesById.computeIfAbsent(id, i -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        return registrations.addAndGet(ids.size() + 1) <= maxRegistrations;
+    }
+}
@@ -1,45 +1,61 @@
 package com.example.superheroes.config;
 
+import com.example.superheroes.cache.SuperheroCache;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import org.springframework.data.domain.Page;
 
 /**
  * Configuration class for setting up a Caffeine-based Cache Manager.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(SuperheroCacheProperties.class)
 public class CacheManagerConfig {
 
     /**
      * Defines the cache manager that uses Caffeine as the caching provider.
+     * Superheroes by id, listing pages and search pages live in separate caches,
+     * so large pages can't push the small and hot lookups by id out of the cache.
      *
+     * @param properties The sizing and expiration of each cache.
      * @return A Caffeine-based CacheManager.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(SuperheroCacheProperties properties) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeineCacheBuilder());
-        cacheManager.setCacheNames(List.of("superheroesCache"));
+        cacheManager.registerCustomCache(SuperheroCache.BY_ID_CACHE, caffeineCacheBuilder(properties.getById()).build());
+        cacheManager.registerCustomCache(SuperheroCache.PAGES_CACHE, caffeineCacheBuilder(properties.getPages()).build());
+        cacheManager.registerCustomCache(SuperheroCache.SEARCH_CACHE, caffeineCacheBuilder(properties.getSearch()).build());
         return cacheManager;
     }
 
     /**
      * Configures the Caffeine cache builder with specific settings.
+     * Writes keep the caches coherent through {@link SuperheroCache}, so the expiration only bounds
+     * how long entries written outside the service can stay stale.
      *
+     * @param spec The settings of the cache.
      * @return A Caffeine cache builder with configured settings.
      */
-    @NonNull Caffeine<Object, Object> caffeineCacheBuilder() {
+    @NonNull Caffeine<Object, Object> caffeineCacheBuilder(SuperheroCacheProperties.Spec spec) {
         return Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(500)
-                .expireAfterWrite(10, TimeUnit.MINUTES);
+                .initialCapacity(spec.getInitialCapacity())
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher(CacheManagerConfig::weigh)
+                .expireAfterWrite(spec.getExpireAfterWrite());
+    }
+
+    /**
+     * Weighs an entry in superheroes: 1 for an entry by id, 1 plus its number of elements for a page.
+     */
+    private static int weigh(Object key, Object value) {
+        return value instanceof Page ? 1 + ((Page<?>) value).getNumberOfElements() : 1;
     }
 }
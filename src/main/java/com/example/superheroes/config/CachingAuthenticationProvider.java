@@ -0,0 +1,115 @@
+package com.example.superheroes.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Authentication provider that remembers the credentials verified by its delegate for a short time.
+ * Verifying a password hash is deliberately slow, and HTTP Basic sends the credentials with every request,
+ * so only the first request of a client within the TTL pays for it.
+ * The cache keys are HMACs of the credentials with a random key of this instance, so the passwords are never kept.
+ * Each credential is prefixed by its length, so a colon moved between the username and the password changes the key.
+ * Failed authentications are not cached, and the entries of a user are dropped when the user changes.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+
+    private final Cache<String, Authentication> verified;
+
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * @param delegate    The provider verifying the credentials on a miss.
+     * @param ttl         How long verified credentials are trusted without verifying them again.
+     * @param maximumSize The maximum number of remembered credentials.
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Can't initialize " + HMAC_ALGORITHM, e);
+            }
+        });
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = keyOf(authentication.getName(), (String) authentication.getCredentials());
+        Authentication cached = verified.getIfPresent(key);
+        if (cached == null) {
+            cached = delegate.authenticate(authentication);
+            if (cached == null) {
+                return null;
+            }
+            verified.put(key, cached);
+        }
+        // A new token per request, so the details of a request are not shared with the others
+        UsernamePasswordAuthenticationToken result = new UsernamePasswordAuthenticationToken(
+                cached.getPrincipal(), null, cached.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication) && delegate.supports(authentication);
+    }
+
+    /**
+     * Forgets the verified credentials of a user, e.g. because its password, roles or status changed.
+     *
+     * @param username The name of the user.
+     */
+    public void invalidate(String username) {
+        verified.asMap().values().removeIf(authentication -> authentication.getName().equals(username));
+    }
+
+    /**
+     * Forgets every verified credential.
+     */
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private String keyOf(String username, String password) {
+        Mac instance = mac.get();
+        update(instance, username.getBytes(StandardCharsets.UTF_8));
+        update(instance, password.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(instance.doFinal());
+    }
+
+    private static void update(Mac mac, byte[] field) {
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(field.length).array());
+        mac.update(field);
+    }
+}
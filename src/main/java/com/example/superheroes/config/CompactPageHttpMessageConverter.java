@@ -0,0 +1,102 @@
+package com.example.superheroes.config;
+
+import com.example.superheroes.pagination.KeysetSlice;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes pages and slices as a compact JSON envelope (application/vnd.superheroes.page+json), without the
+ * pageable and sort metadata of the default representation:
+ * {@code {"content":[...],"page":0,"size":20,"next":1,"total":42}}.
+ * The next field is the number of the next page, the cursor of the next keyset slice, or null on the last one,
+ * and the total is only written for pages, so listings requested with count=false don't have it.
+ * The envelope is streamed to the response with a JsonGenerator, element by element, without building it in memory.
+ * It's only selected when the client asks for its media type, so wildcard Accept headers keep the default representation.
+ */
+public class CompactPageHttpMessageConverter extends AbstractHttpMessageConverter<Slice<?>> {
+
+    public static final MediaType COMPACT_PAGE = MediaType.parseMediaType("application/vnd.superheroes.page+json");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+
+    public CompactPageHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COMPACT_PAGE);
+        this.objectMapper = objectMapper;
+        // Flushing every element would flush the compressing stream too
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Slice.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && COMPACT_PAGE.equalsTypeAndSubtype(mediaType) && supports(clazz);
+    }
+
+    @Override
+    protected Slice<?> readInternal(Class<? extends Slice<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact pages can't be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Slice<?> slice, HttpOutputMessage outputMessage) throws IOException {
+        write(slice, outputMessage.getBody());
+    }
+
+    /**
+     * Writes the compact envelope of a page or a slice.
+     *
+     * @param slice The page or slice to write.
+     * @param out   The stream to write to, left open.
+     * @throws IOException If the envelope can't be written.
+     */
+    public void write(Slice<?> slice, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("content");
+            for (Object element : slice) {
+                elementWriter.writeValue(generator, element);
+            }
+            generator.writeEndArray();
+            if (slice.getPageable().isPaged()) {
+                generator.writeNumberField("page", slice.getNumber());
+                generator.writeNumberField("size", slice.getSize());
+            }
+            generator.writeFieldName("next");
+            if (slice instanceof KeysetSlice) {
+                generator.writeString(((KeysetSlice<?>) slice).getNext());
+            } else if (slice.hasNext()) {
+                generator.writeNumber(slice.getNumber() + 1);
+            } else {
+                generator.writeNull();
+            }
+            if (slice instanceof Page) {
+                generator.writeNumberField("total", ((Page<?>) slice).getTotalElements());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.superheroes.config;
+
+import com.example.superheroes.dao.SuperheroIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the Hibernate settings of the application.
+ */
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Passes the allocation size of the superhero ids to the {@link SuperheroIdGenerator}.
+     * An allocation size of 1 calls the sequence for every insert.
+     *
+     * @param allocationSize The number of ids reserved by each value of the sequence.
+     * @return The customizer of the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer superheroIdAllocationSize(@Value("${superheroes.id.allocation-size:50}") int allocationSize) {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("The allocation size of the superhero ids must be positive: " + allocationSize);
+        }
+        return properties -> properties.put(SuperheroIdGenerator.ALLOCATION_SIZE, allocationSize);
+    }
+}
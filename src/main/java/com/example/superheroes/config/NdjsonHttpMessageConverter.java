@@ -0,0 +1,76 @@
+package com.example.superheroes.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reads and writes collections as newline delimited JSON (application/x-ndjson), one element per line.
+ * Elements are read one by one from the request body, without parsing the whole body as a single JSON tree.
+ */
+public class NdjsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<?>> {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return canRead(mediaType) && supports(javaType(type, contextClass).getRawClass());
+    }
+
+    @Override
+    public Collection<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType javaType = javaType(type, contextClass);
+        JavaType elementType = javaType.getContentType() != null ? javaType.getContentType() : objectMapper.constructType(Object.class);
+        Collection<Object> values = javaType.isTypeOrSubTypeOf(Set.class) ? new LinkedHashSet<>() : new ArrayList<>();
+        try (MappingIterator<Object> iterator = objectMapper.readerFor(elementType).readValues(inputMessage.getBody())) {
+            return iterator.readAll(values);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Invalid NDJSON: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> values, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream body = outputMessage.getBody();
+        for (Object value : values) {
+            body.write(writer.writeValueAsBytes(value));
+            body.write('\n');
+        }
+    }
+
+    private JavaType javaType(Type type, Class<?> contextClass) {
+        return objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.superheroes.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory user store that tells its listeners which user changed, so anything derived from a user,
+ * like its verified credentials, can be dropped.
+ */
+public class NotifyingUserDetailsManager extends InMemoryUserDetailsManager {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public NotifyingUserDetailsManager(UserDetails... users) {
+        super(users);
+    }
+
+    /**
+     * Registers a listener receiving the name of every created, updated or deleted user.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void createUser(UserDetails user) {
+        super.createUser(user);
+        changed(user.getUsername());
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        super.updateUser(user);
+        changed(user.getUsername());
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        super.deleteUser(username);
+        changed(username);
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        super.changePassword(oldPassword, newPassword);
+        Authentication currentUser = SecurityContextHolder.getContext().getAuthentication();
+        if (currentUser != null) {
+            changed(currentUser.getName());
+        }
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = super.updatePassword(user, newPassword);
+        changed(user.getUsername());
+        return updated;
+    }
+
+    private void changed(String username) {
+        // The parent constructor creates the initial users before the listeners are initialized
+        if (listeners == null) {
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(username));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.superheroes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for a read-only replica of the database.
+ * Enabled by superheroes.datasource.replica.enabled, it replaces the data source of spring.datasource with one
+ * routing the read-only transactions to the pool of superheroes.datasource.replica, e.g. the reads of the services,
+ * and everything else to the primary pool of spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "superheroes.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Defines the pool of the primary database, configured by spring.datasource.
+     *
+     * @param properties The properties of spring.datasource.
+     * @return The primary data source.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Defines the pool of the replica, configured by superheroes.datasource.replica with the Hikari property names.
+     * Its connections are read-only.
+     *
+     * @return The replica data source.
+     */
+    @Bean
+    @ConfigurationProperties("superheroes.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Defines the data source of the application, routing each transaction to the primary or the replica.
+     *
+     * @param primaryDataSource The primary data source.
+     * @param replicaDataSource The replica data source.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.superheroes.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 /**
  * Configuration class for defining security settings in the application.
  */
@@ -20,27 +25,54 @@ public class SecurityConfig {
      * Configure in-memory user details for authentication.
      *
      * @param passwordEncoder The password encoder for encoding user passwords.
-     * @return InMemoryUserDetailsManager with pre-defined user and admin credentials.
+     * @return NotifyingUserDetailsManager with pre-defined user and admin credentials.
      */
     @Bean
-    public InMemoryUserDetailsManager userDetailsService(PasswordEncoder passwordEncoder) {
+    public NotifyingUserDetailsManager userDetailsService(PasswordEncoder passwordEncoder) {
         UserDetails user = User.withUsername("user").password(passwordEncoder.encode("password")).roles("USER").build();
 
         UserDetails admin = User.withUsername("admin").password(passwordEncoder.encode("admin")).roles("USER", "ADMIN")
                 .build();
 
-        return new InMemoryUserDetailsManager(user, admin);
+        return new NotifyingUserDetailsManager(user, admin);
+    }
+
+    /**
+     * Configure the authentication provider, which verifies each password once and then trusts it for a short time.
+     *
+     * @param userDetailsService The users, whose changes drop their verified credentials.
+     * @param passwordEncoder    The password encoder verifying the passwords.
+     * @param ttl                How long verified credentials are trusted.
+     * @param maximumSize        The maximum number of verified credentials remembered.
+     * @return The caching authentication provider.
+     */
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider(NotifyingUserDetailsManager userDetailsService,
+                                                                PasswordEncoder passwordEncoder,
+                                                                @Value("${superheroes.security.auth-cache.ttl:1m}") Duration ttl,
+                                                                @Value("${superheroes.security.auth-cache.maximum-size:10000}") long maximumSize) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        CachingAuthenticationProvider authenticationProvider =
+                new CachingAuthenticationProvider(daoAuthenticationProvider, ttl, maximumSize);
+        userDetailsService.addListener(authenticationProvider::invalidate);
+        return authenticationProvider;
     }
 
     /**
      * Configure the security filter chain.
      *
-     * @param http The HttpSecurity object to configure security settings.
+     * @param http                   The HttpSecurity object to configure security settings.
+     * @param authenticationProvider The provider authenticating the HTTP Basic credentials.
      * @return The configured security filter chain.
      * @throws Exception If there's an exception during configuration.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Profile("!reactive")
+    public SecurityFilterChain filterChain(HttpSecurity http, CachingAuthenticationProvider authenticationProvider) throws Exception {
+        http.authenticationManager(new ProviderManager(authenticationProvider));
         http.authorizeRequests()
                 .anyRequest()
                 .authenticated()
@@ -0,0 +1,64 @@
+package com.example.superheroes.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing and expiration of the superhero caches, bound from the superheroes.cache properties.
+ * Weights are counted in superheroes: an entry by id weighs 1 and a page weighs 1 plus its number of elements.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "superheroes.cache")
+public class SuperheroCacheProperties {
+
+    /**
+     * Cache of superheroes by id.
+     */
+    private Spec byId = new Spec(100, 10_000, Duration.ofMinutes(100), Duration.ofMinutes(80));
+
+    /**
+     * Cache of full listing pages.
+     */
+    private Spec pages = new Spec(50, 20_000, Duration.ofMinutes(100), Duration.ofMinutes(80));
+
+    /**
+     * Cache of name search pages.
+     */
+    private Spec search = new Spec(50, 20_000, Duration.ofMinutes(100), Duration.ofMinutes(80));
+
+    /**
+     * Settings of a single cache.
+     */
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Spec {
+
+        /**
+         * Initial capacity of the cache.
+         */
+        private int initialCapacity;
+
+        /**
+         * Maximum total weight of the entries in the cache.
+         */
+        private long maximumWeight;
+
+        /**
+         * Time after which an entry expires once written.
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Age after which a hit reloads the entry in the background, so hot entries don't expire. Empty to disable.
+         */
+        private Duration refreshAfterWrite;
+    }
+}
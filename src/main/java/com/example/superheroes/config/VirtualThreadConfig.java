@@ -0,0 +1,70 @@
+package com.example.superheroes.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration class that runs every request on its own virtual thread instead of Tomcat's bounded worker pool,
+ * so requests blocked on the database no longer stop the others from being served.
+ * Enabled with superheroes.web.virtual-threads=true, it needs a Java 21 runtime even though the application targets Java 11,
+ * so the executor is looked up reflectively. Concurrency is then bounded by the connection pool instead of the worker pool.
+ * Requests still run synchronously on a single thread, so the transactions and cache updates of the services are unchanged.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "superheroes.web.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Configure Tomcat to hand each request to a new virtual thread.
+     *
+     * @return The customizer replacing the executor of the Tomcat connector.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Runs the asynchronous parts of the requests, like streaming the export, on virtual threads too.
+     *
+     * @param configurer The asynchronous request processing configuration.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Calls Executors.newVirtualThreadPerTaskExecutor(), which does not exist before Java 21.
+     *
+     * @return An executor starting a virtual thread per task.
+     * @throws IllegalStateException If the runtime has no virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("superheroes.web.virtual-threads requires Java 21 or later, running on Java "
+                    + Runtime.version().feature(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.superheroes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration class for the Spring MVC settings of the application.
+ */
+@Configuration
+@Profile("!reactive")
+@AllArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private ObjectMapper objectMapper;
+
+    /**
+     * Adds the NDJSON converter, so batch endpoints accept streams of items besides JSON arrays,
+     * and the compact page converter, ahead of Jackson, which would also write its +json media type.
+     *
+     * @param converters The converters configured by Spring Boot.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new CompactPageHttpMessageConverter(objectMapper));
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+    }
+}
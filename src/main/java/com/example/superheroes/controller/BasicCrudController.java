@@ -1,7 +1,12 @@
 package com.example.superheroes.controller;
 
+import com.example.superheroes.dto.BatchResult;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 public interface BasicCrudController <E,ID>{
 
@@ -11,16 +16,43 @@ public interface BasicCrudController <E,ID>{
      * @param name The name to filter entities.
      * @param page The page number.
      * @param size The number of items per page.
+     * @param request The request, to answer Not Modified if the client already has the page.
      * @return A page of entities.
      */
-    ResponseEntity<Page<E>> findAll(String name, Integer page, Integer size, String sortParam);
+    ResponseEntity<Page<E>> findAll(String name, Integer page, Integer size, String sortParam, WebRequest request);
+    /**
+     * Retrieves a slice of entities filtered and paginated or filtered by name and paginated, without a total count.
+     *
+     * @param name The name to filter entities.
+     * @param page The page number.
+     * @param size The number of items per page.
+     * @return A slice of entities.
+     */
+    ResponseEntity<Slice<E>> findSlice(String name, Integer page, Integer size, String sortParam);
+    /**
+     * Retrieves a slice of entities after a cursor, optionally filtered by name, without a total count.
+     *
+     * @param name  The name to filter entities.
+     * @param after The opaque cursor returned as next by the previous slice, empty for the first one.
+     * @param size  The number of items per slice.
+     * @return A slice of entities and the cursor of the next one.
+     */
+    ResponseEntity<Slice<E>> findAllAfter(String name, String after, Integer size, String sortParam);
     /**
      * Retrieves an entity by its unique identifier.
      *
      * @param id The unique identifier of the entity.
+     * @param request The request, to answer Not Modified if the client already has the entity.
      * @return The retrieved entity.
      */
-    ResponseEntity<E> findById(ID id);
+    ResponseEntity<E> findById(ID id, WebRequest request);
+    /**
+     * Retrieves the entities with the given unique identifiers, in the same order.
+     *
+     * @param ids The unique identifiers of the entities.
+     * @return The retrieved entities, without the ones that don't exist.
+     */
+    ResponseEntity<List<E>> findAllById(List<ID> ids);
     /**
      * Creates a new entity.
      *
@@ -33,9 +65,31 @@ public interface BasicCrudController <E,ID>{
      *
      * @param e  The updated entity.
      * @param id The ID of the entity to be updated.
+     * @param ifMatch The ETag of the version expected to be updated, or null for any version.
      * @return The updated entity.
      */
-    ResponseEntity<E> update(E e, ID id);
+    ResponseEntity<E> update(E e, ID id, String ifMatch);
+    /**
+     * Creates the given entities in chunks.
+     *
+     * @param es The entities to be created.
+     * @return The result of each entity.
+     */
+    ResponseEntity<List<BatchResult<E>>> createAll(List<E> es);
+    /**
+     * Updates the given entities, identified by their IDs, in chunks.
+     *
+     * @param es The updated entities.
+     * @return The result of each entity.
+     */
+    ResponseEntity<List<BatchResult<E>>> updateAll(List<E> es);
+    /**
+     * Deletes the entities with the given IDs in chunks.
+     *
+     * @param ids The IDs of the entities to be deleted.
+     * @return The result of each ID.
+     */
+    ResponseEntity<List<BatchResult<E>>> deleteAllById(List<ID> ids);
     /**
      * Deletes an entity by its unique identifier.
      *
@@ -1,5 +1,6 @@
 package com.example.superheroes.controller;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -28,6 +29,17 @@ public class ControllerExceptionAdviser {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles exceptions of type OptimisticLockingFailureException, raised when an update doesn't apply to the current version.
+     *
+     * @param e The exception to handle.
+     * @return A ResponseEntity with a PRECONDITION_FAILED status and an error message.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> optimisticLockingFailureException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
     /**
      * Handles exceptions of type IllegalArgumentException.
      *
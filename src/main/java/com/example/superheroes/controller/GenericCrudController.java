@@ -1,26 +1,57 @@
 package com.example.superheroes.controller;
 
+import com.example.superheroes.cache.CachedPage;
+import com.example.superheroes.dto.BatchResult;
+import com.example.superheroes.dto.RenderedPage;
 import com.example.superheroes.mapper.Mapper;
+import com.example.superheroes.model.Versioned;
+import com.example.superheroes.pagination.KeysetCursor;
 import com.example.superheroes.service.GenericService;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * An abstract controller for CRUD (Create, Read, Update, Delete) operations for a specific entity type and DTO type.
+ * Single entities are validated by strong ETags built from their version, which also guard their updates through If-Match,
+ * and listings by the modification stamp of the service, so unchanged responses are answered with 304 Not Modified
+ * before being mapped or serialized. The modification stamp is per instance, so listings are only revalidated
+ * by the instance that served them, until it restarts.
+ * Listings are written as the compact page envelope of {@link com.example.superheroes.config.CompactPageHttpMessageConverter} when the client asks for it.
+ *
+ * It is public so its handler methods are detected on the controllers themselves, not through the visibility bridges
+ * a package-private superclass leaves, which a refreshed context fails to map.
  *
  * @param <E> The entity type.
  * @param <D> The DTO (Data Transfer Object) type.
  */
 
-abstract class GenericCrudController<E, D> implements BasicCrudController<D, Long>
+public abstract class GenericCrudController<E extends Versioned, D> implements BasicCrudController<D, Long>
 {
+    /**
+     * Maximum number of IDs of a multi-get, so a single request can't load the whole table.
+     */
+    private static final int MAX_IDS = 1_000;
+
+    /**
+     * Maximum number of entities of a slice after a cursor, larger sizes are capped to it.
+     */
+    private static final int MAX_SLICE_SIZE = 1_000;
+
     /**
      * Get the service responsible for handling the CRUD operations for the entity.
      *
@@ -41,15 +72,88 @@ abstract class GenericCrudController<E, D> implements BasicCrudController<D, Lon
      * @param page     (Optional) The page number for pagination.
      * @param size     (Optional) The number of items per page for pagination.
      * @param sortParam (Optional) The sorting parameter, in the format "property,direction."
-     * @return A page of DTO objects.
+     * @param request  The request, whose If-None-Match is checked against the modification stamp.
+     * @return A page of DTO objects, or Not Modified if the client already has it.
      */
-    @GetMapping
+    // The listings by cursor and by IDs are exclusive, so a request with both matches no mapping and gets a 400
+    @GetMapping(params = {"!after", "!ids"})
     @Override
     @ApiOperation(value = "Find entities", notes = "Get a list of entities optionally filtered by name")
     public ResponseEntity<Page<D>> findAll(@RequestParam(value = "name", required = false)String name,
                                                       @RequestParam(value = "page", required = false) Integer page,
                                                       @RequestParam(value = "size", required = false) Integer size,
-                                                      @RequestParam(value = "sort", required = false) String sortParam) {
+                                                      @RequestParam(value = "sort", required = false) String sortParam,
+                                                      WebRequest request) {
+        // The stamp is read before the page, so it's never newer than the page it validates
+        if (request.checkNotModified(getService().modificationStamp())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Sort sort = parseSort(sortParam);
+        // The default and the compact pages share the stamp, so caches must keep them apart
+        if(name!=null){
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT)
+                    .body(toDtoPage(getService().findAllByName(name, PageRequest.of(page != null ? page : 0, size != null ? size : 20, sort))));
+        }else{
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT)
+                    .body(toDtoPage(getService().findAll(PageRequest.of(page != null ? page : 0, size != null ? size : 20, sort))));
+        }
+    }
+
+    /**
+     * Retrieves a list of entities, optionally filtered by name, with paging and sorting options but no total count.
+     * Selected with count=false, it skips the count of the entities and only tells whether there is a next page.
+     *
+     * @param name      (Optional) The name by which to filter the entities.
+     * @param page      (Optional) The page number for pagination.
+     * @param size      (Optional) The number of items per page for pagination.
+     * @param sortParam (Optional) The sorting parameter, in the format "property,direction."
+     * @return A slice of DTO objects.
+     */
+    @GetMapping(params = {"count=false", "!after", "!ids"})
+    @Override
+    @ApiOperation(value = "Find entities without count", notes = "Get a list of entities optionally filtered by name, without the total number of entities")
+    public ResponseEntity<Slice<D>> findSlice(@RequestParam(value = "name", required = false) String name,
+                                              @RequestParam(value = "page", required = false) Integer page,
+                                              @RequestParam(value = "size", required = false) Integer size,
+                                              @RequestParam(value = "sort", required = false) String sortParam) {
+        Slice<E> slice = getService().findSlice(name, PageRequest.of(page != null ? page : 0, size != null ? size : 20, parseSort(sortParam)));
+        return ResponseEntity.ok(getMapper().mapEntitySliceToDtoSlice(slice));
+    }
+
+    /**
+     * Retrieves a slice of entities after a cursor, optionally filtered by name, with a sorting option.
+     * Unlike the paged listing, it doesn't count the entities and seeks instead of skipping rows, so deep slices
+     * are as cheap as the first one.
+     *
+     * @param name      (Optional) The name by which to filter the entities.
+     * @param after     The cursor returned as next by the previous slice, empty for the first one.
+     * @param size      (Optional) The number of items per slice.
+     * @param sortParam (Optional) The sorting parameter of the first slice, in the format "property,direction."
+     * @return A slice of DTO objects and the cursor of the next one.
+     * @throws IllegalArgumentException If the size is less than one or the cursor is malformed.
+     */
+    @GetMapping(params = {"after", "!ids"})
+    @Override
+    @ApiOperation(value = "Find entities after a cursor", notes = "Get a slice of entities optionally filtered by name, following the next cursor of the previous slice")
+    public ResponseEntity<Slice<D>> findAllAfter(@RequestParam(value = "name", required = false) String name,
+                                                 @RequestParam(value = "after") String after,
+                                                 @RequestParam(value = "size", required = false) Integer size,
+                                                 @RequestParam(value = "sort", required = false) String sortParam) {
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException("Can't find a slice of " + size + " entities, the size must be at least one");
+        }
+        Slice<E> slice = getService().findAllAfter(name, KeysetCursor.decode(after),
+                size != null ? Math.min(size, MAX_SLICE_SIZE) : 20, parseSort(sortParam));
+        return ResponseEntity.ok(getMapper().mapEntitySliceToDtoSlice(slice));
+    }
+
+    /**
+     * Parses a sorting parameter in the format "property,direction."
+     *
+     * @param sortParam The sorting parameter, possibly null.
+     * @return The parsed sort, unsorted if the parameter is missing or malformed.
+     */
+    private Sort parseSort(String sortParam) {
         Sort sort = Sort.unsorted();
         if (sortParam != null && !sortParam.isEmpty()) {
             String[] parts = sortParam.split(",");
@@ -59,26 +163,87 @@ abstract class GenericCrudController<E, D> implements BasicCrudController<D, Lon
                 sort= Sort.by(Sort.Direction.fromString(direction), property);
             }
         }
-        if(name!=null){
-            return ResponseEntity.ok(getMapper().mapEntityPageToDtoPage(getService().findAllByName(name, PageRequest.of(page != null ? page : 0, size != null ? size : 20, sort))));
-        }else{
-            return ResponseEntity.ok(getMapper().mapEntityPageToDtoPage(getService().findAll(PageRequest.of(page != null ? page : 0, size != null ? size : 20, sort))));
+        return sort;
+    }
+
+    /**
+     * Builds the strong ETag of an entity from its version.
+     */
+    private static String eTagOf(Versioned e) {
+        return "\"" + e.getVersion() + "\"";
+    }
+
+    /**
+     * Parses the version expected by an If-Match header, null when any version is accepted.
+     * Only a single strong ETag can match a version, so anything else fails the precondition.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not an ETag of this controller
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match " + ifMatch + " doesn't match any version of the entity");
+    }
+
+    /**
+     * Maps a page of entities to a page of DTOs.
+     * Cached pages are mapped and serialized only once, then every hit reuses their rendered JSON.
+     *
+     * @param page The page of entities.
+     * @return The page of DTOs.
+     */
+    private Page<D> toDtoPage(Page<E> page) {
+        if (page instanceof CachedPage) {
+            return ((CachedPage<E>) page).render(p -> new RenderedPage<>(getMapper().mapEntityPageToDtoPage(p)));
         }
+        return getMapper().mapEntityPageToDtoPage(page);
     }
 
     /**
      * Retrieves a entity by their unique ID.
      *
-     * @param id The unique ID of the entity to retrieve.
-     * @return A DTO object representing the entity.
+     * @param id      The unique ID of the entity to retrieve.
+     * @param request The request, whose If-None-Match is checked against the version of the entity.
+     * @return A DTO object representing the entity, or Not Modified if the client already has it.
      * @throws IllegalArgumentException If the entity with the given ID does not exist.
      */
     @GetMapping("/{id}")
     @Override
     @ApiOperation(value = "Find entity by ID", notes = "Get a entity by their unique ID")
-    public ResponseEntity<D> findById(@PathVariable("id")Long id) {
-        return ResponseEntity.ok(getMapper().mapToDto(getService().findById(id).orElseThrow(() -> new IllegalArgumentException("Can't find a entity" +
-                " if that id: "+id+" it does not exist"))));
+    public ResponseEntity<D> findById(@PathVariable("id")Long id, WebRequest request) {
+        E e = getService().findById(id).orElseThrow(() -> new IllegalArgumentException("Can't find a entity" +
+                " if that id: "+id+" it does not exist"));
+        if (request.checkNotModified(eTagOf(e))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(getMapper().mapToDto(e));
+    }
+
+    /**
+     * Retrieves the entities with the given IDs in one call, in the same order.
+     * The cached entities are served from the cache and the others are fetched together.
+     *
+     * @param ids The IDs of the entities to retrieve, comma separated.
+     * @return The DTOs of the entities that exist.
+     * @throws IllegalArgumentException If an ID is empty or there are more than 1000 IDs.
+     */
+    @GetMapping(params = {"ids", "!after"})
+    @Override
+    @ApiOperation(value = "Find entities by IDs", notes = "Get the entities with the given IDs in the same order, leaving out the missing ones")
+    public ResponseEntity<List<D>> findAllById(@RequestParam(value = "ids") List<Long> ids) {
+        if (ids.size() > MAX_IDS || ids.contains(null)) {
+            throw new IllegalArgumentException("Can't find more than " + MAX_IDS + " entities by id, nor an empty id");
+        }
+        return ResponseEntity.ok(getService().findAllById(ids).stream()
+                .map(getMapper()::mapToDto)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -94,7 +259,7 @@ abstract class GenericCrudController<E, D> implements BasicCrudController<D, Lon
     public ResponseEntity<D> create(@RequestBody D d) {
         Optional<E> result = getService().create(getMapper().mapToEntity(d));
         if (result.isPresent()) {
-            return ResponseEntity.ok(getMapper().mapToDto(result.get()));
+            return ResponseEntity.ok().eTag(eTagOf(result.get())).body(getMapper().mapToDto(result.get()));
         } else {
             throw new NoSuchElementException("Can't create entity if entity is not present");
         }
@@ -102,25 +267,79 @@ abstract class GenericCrudController<E, D> implements BasicCrudController<D, Lon
 
     /**
      * Updates an existing entity by their ID based on the provided DTO.
+     * With an If-Match header, the entity is only updated if it's still at the version of that ETag.
      *
      * @param d The DTO representing the updated entity.
      * @param id           The ID of the entity to update.
+     * @param ifMatch      (Optional) The ETag of the version the client last read, or * for any version.
      * @return A DTO representing the updated entity.
      * @throws NoSuchElementException If the entity is not present.
+     * @throws OptimisticLockingFailureException If the entity is not at the version of the If-Match header.
      */
     @PatchMapping(value = "/{id}")
     @Override
     @ApiOperation(value = "Update entity", notes = "Update an existing entity by their ID")
-    public ResponseEntity<D> update(@RequestBody D d, @PathVariable("id")Long id) {
-        Optional<E> result = getService().update(id, getMapper().mapToEntity(d));
+    public ResponseEntity<D> update(@RequestBody D d, @PathVariable("id")Long id,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<E> result = getService().update(id, getMapper().mapToEntity(d), expectedVersion(ifMatch));
         if (result.isPresent()) {
-            return ResponseEntity.ok(getMapper().mapToDto(result.get()));
+            return ResponseEntity.ok().eTag(eTagOf(result.get())).body(getMapper().mapToDto(result.get()));
         } else {
             throw new NoSuchElementException("Can't update entity if entity is not present");
         }
 
     }
 
+    /**
+     * Creates new entities based on the provided DTOs, as a JSON array or as NDJSON.
+     * The entities whose ID already exists are reported as CONFLICT instead of failing the whole request.
+     *
+     * @param ds The DTOs representing the new entities.
+     * @return The result of each DTO, in the same order.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Override
+    @ApiOperation(value = "Create entities", notes = "Create many entities in a single request")
+    public ResponseEntity<List<BatchResult<D>>> createAll(@RequestBody List<D> ds) {
+        return ResponseEntity.ok(toDtoResults(getService().createAll(toEntities(ds))));
+    }
+
+    /**
+     * Updates existing entities by their IDs based on the provided DTOs, as a JSON array or as NDJSON.
+     * The entities that don't exist are reported as NOT_FOUND instead of failing the whole request.
+     *
+     * @param ds The DTOs representing the updated entities.
+     * @return The result of each DTO, in the same order.
+     */
+    @PatchMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Override
+    @ApiOperation(value = "Update entities", notes = "Update many existing entities by their ID in a single request")
+    public ResponseEntity<List<BatchResult<D>>> updateAll(@RequestBody List<D> ds) {
+        return ResponseEntity.ok(toDtoResults(getService().updateAll(toEntities(ds))));
+    }
+
+    /**
+     * Deletes entities by their unique IDs, given as a JSON array or as NDJSON.
+     * The entities that don't exist are reported as NOT_FOUND instead of failing the whole request.
+     *
+     * @param ids The unique IDs of the entities to delete.
+     * @return The result of each ID, in the same order.
+     */
+    @DeleteMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Override
+    @ApiOperation(value = "Delete entities", notes = "Delete many entities by their unique ID in a single request")
+    public ResponseEntity<List<BatchResult<D>>> deleteAllById(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(toDtoResults(getService().deleteAllById(ids)));
+    }
+
+    private List<E> toEntities(List<D> ds) {
+        return ds.stream().map(getMapper()::mapToEntity).collect(Collectors.toList());
+    }
+
+    private List<BatchResult<D>> toDtoResults(List<BatchResult<E>> results) {
+        return results.stream().map(result -> result.map(getMapper()::mapToDto)).collect(Collectors.toList());
+    }
+
     /**
      * Deletes a entity by their unique ID.
      *
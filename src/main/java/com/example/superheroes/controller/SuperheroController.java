@@ -6,6 +6,7 @@ import com.example.superheroes.model.Superhero;
 import com.example.superheroes.service.GenericService;
 import io.swagger.annotations.Api;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
  * The SuperheroController class is responsible for handling HTTP requests related to superheroes.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/superhero")
 @AllArgsConstructor
 @Api(value = "Superhero Controller")
@@ -0,0 +1,46 @@
+package com.example.superheroes.controller;
+
+import com.example.superheroes.export.SuperheroExporter;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * The SuperheroExportController class streams the whole roster for downstream jobs.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/superhero/export")
+@AllArgsConstructor
+@Api(value = "Superhero Export Controller")
+public class SuperheroExportController {
+
+    private SuperheroExporter exporter;
+
+    /**
+     * Exports every superhero in id order, one per line, while they are read from the database.
+     *
+     * @param format (Optional) The format of the export, ndjson by default or csv.
+     * @return The streamed export.
+     * @throws IllegalArgumentException If the format is not supported.
+     */
+    @GetMapping
+    @ApiOperation(value = "Export superheroes", notes = "Stream every superhero as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", required = false) String format) {
+        SuperheroExporter.Format exportFormat = SuperheroExporter.Format.of(format != null ? format : "ndjson");
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("superheroes." + exportFormat.getExtension()).build().toString())
+                .body(out -> exporter.export(exportFormat, out));
+    }
+}
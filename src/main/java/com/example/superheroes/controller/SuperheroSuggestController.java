@@ -0,0 +1,47 @@
+package com.example.superheroes.controller;
+
+import com.example.superheroes.dto.SuperheroDto;
+import com.example.superheroes.mapper.Mapper;
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.service.SuperheroService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The SuperheroSuggestController class serves name suggestions while the user types.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/superhero/suggest")
+@AllArgsConstructor
+@Api(value = "Superhero Suggest Controller")
+public class SuperheroSuggestController {
+
+    private SuperheroService service;
+    private Mapper<SuperheroDto, Superhero> mapper;
+
+    /**
+     * Suggests superheroes whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix typed by the user.
+     * @param limit  (Optional) The maximum number of suggestions.
+     * @return The suggested superheroes in name order.
+     */
+    @GetMapping
+    @ApiOperation(value = "Suggest superheroes", notes = "Get the first superheroes whose name starts with a prefix")
+    public ResponseEntity<List<SuperheroDto>> suggest(@RequestParam("prefix") String prefix,
+                                                      @RequestParam(value = "limit", required = false) Integer limit) {
+        List<Superhero> suggestions = service.suggest(prefix, limit != null ? limit : 10);
+        return ResponseEntity.ok(suggestions.stream().map(mapper::mapToDto).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.superheroes.dao;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Generates the ids of the superheroes from their own sequence with the pooled-lo optimizer.
+ * Every value of the sequence reserves a block of allocation-size ids starting at that value, so Hibernate
+ * only calls the sequence once per block and the inserts can be sent as JDBC batches.
+ * Plain SQL inserts can take the next value of the sequence as their id, since it's the start of a block nobody else uses.
+ * The allocation size is read from the Hibernate setting {@value #ALLOCATION_SIZE}.
+ */
+public class SuperheroIdGenerator extends SequenceStyleGenerator {
+
+    /**
+     * The sequence of the superhero ids, incremented by the allocation size.
+     */
+    public static final String SEQUENCE = "superhero_seq";
+
+    /**
+     * The Hibernate setting with the number of ids reserved by each value of the sequence.
+     */
+    public static final String ALLOCATION_SIZE = "superheroes.id.allocation_size";
+
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(SEQUENCE_PARAM, SEQUENCE);
+        params.setProperty(INITIAL_PARAM, "1");
+        params.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.superheroes.dao;
+
+import com.example.superheroes.model.Superhero;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Plain JDBC access to the superhero table, for reads that don't need the persistence context.
+ * Rows are mapped straight into detached superheroes, without entity snapshots or a session.
+ */
+@Repository
+@AllArgsConstructor
+public class SuperheroJdbcDao {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name");
+
+    private static final RowMapper<Superhero> ROW_MAPPER =
+            (resultSet, rowNum) -> new Superhero(resultSet.getLong(1), resultSet.getString(2), resultSet.getLong(3));
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO superhero (id, name, version) "
+            + "SELECT NEXT VALUE FOR " + SuperheroIdGenerator.SEQUENCE + ", ?, 0 WHERE NOT EXISTS (SELECT 1 FROM superhero WHERE id = ?)";
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads every superhero in id order through a forward-only cursor, without keeping them in memory.
+     *
+     * @param consumer Receives each superhero. The instances are not managed by JPA.
+     * @return The number of superheroes read.
+     */
+    public long forEach(Consumer<Superhero> consumer) {
+        AtomicLong count = new AtomicLong();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, name, version FROM superhero ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            consumer.accept(ROW_MAPPER.mapRow(resultSet, 0));
+            count.incrementAndGet();
+        });
+        return count.get();
+    }
+
+    /**
+     * Reads a superhero by id.
+     *
+     * @param id The id of the superhero.
+     * @return The superhero, or empty if it doesn't exist.
+     */
+    public Optional<Superhero> findById(long id) {
+        return jdbcTemplate.query("SELECT id, name, version FROM superhero WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Reads a slice of superheroes, without counting them.
+     *
+     * @param pageable The slice, with a sort by id and/or name, by id if unsorted.
+     * @return The superheroes of the slice.
+     * @throws IllegalArgumentException If the sort is by another property.
+     */
+    public Slice<Superhero> findSlice(Pageable pageable) {
+        return toSlice(jdbcTemplate.query("SELECT id, name, version FROM superhero" + orderBy(pageable.getSort())
+                + " LIMIT ? OFFSET ?", ROW_MAPPER, pageable.getPageSize() + 1, pageable.getOffset()), pageable);
+    }
+
+    /**
+     * Reads a slice of the superheroes whose name contains the given one, ignoring case, without counting them.
+     *
+     * @param name     The text contained in the names.
+     * @param pageable The slice, with a sort by id and/or name, by id if unsorted.
+     * @return The superheroes of the slice.
+     * @throws IllegalArgumentException If the sort is by another property.
+     */
+    public Slice<Superhero> findSliceByNameContainingIgnoreCase(String name, Pageable pageable) {
+        return toSlice(jdbcTemplate.query("SELECT id, name, version FROM superhero WHERE UPPER(name) LIKE ? ESCAPE '\\'"
+                        + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                ROW_MAPPER, containing(name), pageable.getPageSize() + 1, pageable.getOffset()), pageable);
+    }
+
+    /**
+     * Counts every superhero.
+     *
+     * @return The number of superheroes.
+     */
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM superhero", Long.class);
+    }
+
+    /**
+     * Counts the superheroes whose name contains the given one, ignoring case.
+     *
+     * @param name The text contained in the names.
+     * @return The number of matching superheroes.
+     */
+    public long countByNameContainingIgnoreCase(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM superhero WHERE UPPER(name) LIKE ? ESCAPE '\\'",
+                Long.class, containing(name));
+    }
+
+    /**
+     * Creates a superhero unless one with the given id already exists, with a single statement.
+     * The check and the insert run in the same statement, and the new id is the next value of the sequence
+     * of the {@link SuperheroIdGenerator}, which no id generated by JPA can collide with.
+     *
+     * @param id   The id that must not exist yet.
+     * @param name The name of the superhero.
+     * @return The created superhero with its generated id, or empty if the id already exists.
+     */
+    public Optional<Superhero> insertIfAbsent(long id, String name) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT, new String[]{"id"});
+            statement.setString(1, name);
+            statement.setLong(2, id);
+            return statement;
+        }, keyHolder);
+        if (inserted == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Superhero(keyHolder.getKeyAs(Long.class), name, 0));
+    }
+
+    /**
+     * Builds a slice from the rows read with one more than its size, which only tells whether there is a next slice.
+     */
+    private static Slice<Superhero> toSlice(List<Superhero> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY id";
+        }
+        return sort.stream()
+                .map(order -> {
+                    if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                        throw new IllegalArgumentException("Can't sort by " + order.getProperty());
+                    }
+                    return order.getProperty() + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static String containing(String name) {
+        return "%" + name.toUpperCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
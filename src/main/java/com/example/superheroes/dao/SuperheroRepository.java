@@ -3,13 +3,33 @@ package com.example.superheroes.dao;
 import com.example.superheroes.model.Superhero;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for Superhero entities.
  */
 @Repository
-public interface SuperheroRepository extends JpaRepository<Superhero, Long> {
+public interface SuperheroRepository extends JpaRepository<Superhero, Long>, SuperheroRepositoryCustom {
+
+    /**
+     * Search a Superhero by id in a read-write transaction, unlike the other reads.
+     * The writes look their Superhero up with it, so they read it from the primary database and not from the replica.
+     * Inside a read-only transaction it joins it and reads from the replica.
+     * @param id The id of the Superhero.
+     * @return Optional<Superhero> - The Superhero, if it exists
+     */
+    @Override
+    @Transactional
+    Optional<Superhero> findById(Long id);
 
     /**
      * Search all Superheroes that contains a specified name.
@@ -18,4 +38,42 @@ public interface SuperheroRepository extends JpaRepository<Superhero, Long> {
      * @return Page<Superhero> - Page of matching Superheroes
      */
     Page<Superhero> findAllByNameContainingIgnoreCase(String name, Pageable page);
+
+    /**
+     * Search all Superheroes, without counting them.
+     * @param page Pageable object for pagination.
+     * @return Slice<Superhero> - Slice of Superheroes
+     */
+    Slice<Superhero> findAllBy(Pageable page);
+
+    /**
+     * Search the Superheroes that contains a specified name, without counting them.
+     * @param name The name to search for.
+     * @param page Pageable object for pagination.
+     * @return Slice<Superhero> - Slice of matching Superheroes
+     */
+    Slice<Superhero> findSliceByNameContainingIgnoreCase(String name, Pageable page);
+
+    /**
+     * Count the Superheroes that contains a specified name.
+     * @param name The name to search for.
+     * @return long - Number of matching Superheroes
+     */
+    long countByNameContainingIgnoreCase(String name);
+
+    /**
+     * Search the Superheroes whose name starts with a prefix, without counting them.
+     * @param prefix The prefix of the names.
+     * @param page Pageable object for pagination.
+     * @return Slice<Superhero> - Slice of matching Superheroes
+     */
+    Slice<Superhero> findAllByNameStartingWithIgnoreCase(String prefix, Pageable page);
+
+    /**
+     * Search which of the given ids exist, without loading the Superheroes.
+     * @param ids The ids to check.
+     * @return List<Long> - The existing ids
+     */
+    @Query("select s.id from Superhero s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
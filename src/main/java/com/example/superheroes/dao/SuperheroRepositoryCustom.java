@@ -0,0 +1,25 @@
+package com.example.superheroes.dao;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.pagination.KeysetCursor;
+import com.example.superheroes.pagination.KeysetSlice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Queries of Superhero entities that can't be derived from the method names.
+ */
+public interface SuperheroRepositoryCustom {
+
+    /**
+     * Seeks the Superheroes after a cursor, optionally filtered by a name they contain, without counting them.
+     * The query only reads the rows it returns, whatever the position of the cursor.
+     *
+     * @param name  The name to search for, or null for every Superhero.
+     * @param order The sort order, by id or by name.
+     * @param after The cursor of the last Superhero already returned, or null to start from the beginning.
+     * @param size  The maximum number of Superheroes to return.
+     * @return KeysetSlice<Superhero> - Slice of Superheroes with the cursor of the next one
+     * @throws IllegalArgumentException If the order is not by id or by name, or the size is less than one.
+     */
+    KeysetSlice<Superhero> findAllAfter(String name, Sort.Order order, KeysetCursor after, int size);
+}
@@ -0,0 +1,91 @@
+package com.example.superheroes.dao;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.pagination.KeysetCursor;
+import com.example.superheroes.pagination.KeysetSlice;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of the SuperheroRepositoryCustom queries with the JPA Criteria API.
+ */
+public class SuperheroRepositoryCustomImpl implements SuperheroRepositoryCustom {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public KeysetSlice<Superhero> findAllAfter(String name, Sort.Order order, KeysetCursor after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Can't seek a slice of " + size + " superheroes");
+        }
+        if (!ID.equals(order.getProperty()) && !NAME.equals(order.getProperty())) {
+            throw new IllegalArgumentException("Can't seek superheroes sorted by " + order.getProperty());
+        }
+        if (after != null && NAME.equals(order.getProperty()) && after.getKey() == null) {
+            throw new IllegalArgumentException("The pagination cursor has no name to seek from");
+        }
+        boolean ascending = order.isAscending();
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Superhero> query = builder.createQuery(Superhero.class);
+        Root<Superhero> root = query.from(Superhero.class);
+        Path<Long> id = root.get(ID);
+        Path<String> sortName = root.get(NAME);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (name != null) {
+            predicates.add(builder.like(builder.upper(root.get(NAME)), "%" + escape(name.toUpperCase(Locale.ROOT)) + "%", ESCAPE));
+        }
+        if (after != null) {
+            Predicate afterId = after(builder, id, after.getId(), ascending);
+            if (NAME.equals(order.getProperty())) {
+                predicates.add(builder.or(after(builder, sortName, after.getKey(), ascending),
+                        builder.and(builder.equal(sortName, after.getKey()), afterId)));
+            } else {
+                predicates.add(afterId);
+            }
+        }
+        List<Order> orders = new ArrayList<>();
+        if (NAME.equals(order.getProperty())) {
+            orders.add(ascending ? builder.asc(sortName) : builder.desc(sortName));
+        }
+        orders.add(ascending ? builder.asc(id) : builder.desc(id));
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+
+        // Reads one more row than requested to know if there is a next slice
+        List<Superhero> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<Superhero> content = rows.size() > size ? rows.subList(0, size) : rows;
+        String next = null;
+        if (rows.size() > size) {
+            Superhero last = content.get(content.size() - 1);
+            next = KeysetCursor.of(order, last.getId(), NAME.equals(order.getProperty()) ? last.getName() : null).encode();
+        }
+        return new KeysetSlice<>(content, PageRequest.of(0, size, Sort.by(order)), next);
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder builder, Expression<? extends Y> path,
+                                                                   Y value, boolean ascending) {
+        return ascending ? builder.greaterThan(path, value) : builder.lessThan(path, value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
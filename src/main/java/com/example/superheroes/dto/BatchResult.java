@@ -0,0 +1,54 @@
+package com.example.superheroes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * Result of a single item of a batch request.
+ *
+ * @param <T> The type of the item.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResult<T> {
+
+    /**
+     * Outcome of an item of a batch request.
+     */
+    public enum Status {
+        CREATED, UPDATED, DELETED, CONFLICT, NOT_FOUND
+    }
+
+    /**
+     * The position of the item in the request.
+     */
+    private int index;
+
+    /**
+     * The id of the item, the generated one for a created item.
+     */
+    private Long id;
+
+    /**
+     * The outcome of the item.
+     */
+    private Status status;
+
+    /**
+     * The item as stored in the database, or null if it wasn't written or was deleted.
+     */
+    private T item;
+
+    /**
+     * Maps the item keeping the rest of the result.
+     *
+     * @param mapper The mapping function.
+     * @param <R>    The type of the mapped item.
+     * @return The result with the mapped item.
+     */
+    public <R> BatchResult<R> map(Function<? super T, ? extends R> mapper) {
+        return new BatchResult<>(index, id, status, item != null ? mapper.apply(item) : null);
+    }
+}
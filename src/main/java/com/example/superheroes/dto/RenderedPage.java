@@ -0,0 +1,58 @@
+package com.example.superheroes.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.io.IOException;
+
+/**
+ * A page of DTOs that keeps its JSON representation once it has been serialized.
+ * Later serializations copy the pre-encoded UTF-8 bytes straight to the output.
+ *
+ * @param <D> The DTO type.
+ */
+public class RenderedPage<D> extends PageImpl<D> implements JsonSerializable {
+
+    private transient volatile SerializedString json;
+
+    public RenderedPage(Page<D> page) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Writes the page, serializing it with the generator's ObjectMapper only the first time.
+     *
+     * @param gen         The generator to write to.
+     * @param serializers The provider of the serializers.
+     * @throws IOException If the page can't be written.
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        SerializedString body = json;
+        if (body == null) {
+            Page<D> page = new PageImpl<>(getContent(), getPageable(), getTotalElements());
+            ObjectCodec codec = gen.getCodec();
+            if (!(codec instanceof ObjectMapper)) {
+                serializers.defaultSerializeValue(page, gen);
+                return;
+            }
+            body = new SerializedString(((ObjectMapper) codec).writeValueAsString(page));
+            // Encodes the bytes once, SerializedString keeps them
+            body.asUnquotedUTF8();
+            json = body;
+        }
+        gen.writeRawValue(body);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
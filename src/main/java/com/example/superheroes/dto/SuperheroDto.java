@@ -15,8 +15,8 @@ public class SuperheroDto {
 
     /**
      * The unique identifier for the superhero.
+     * Optional on creation: it's only checked for conflicts, and the created superhero gets a generated one.
      */
-    @NotNull
     private Long id;
 
     /**
@@ -0,0 +1,139 @@
+package com.example.superheroes.export;
+
+import com.example.superheroes.dao.SuperheroJdbcDao;
+import com.example.superheroes.model.Superhero;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Writes every superhero to an output stream as it is read from a forward-only JDBC cursor.
+ * Only the rows of the current fetch and the output buffer are in memory, whatever the size of the table.
+ */
+@Component
+@AllArgsConstructor
+public class SuperheroExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private SuperheroJdbcDao dao;
+
+    private ObjectMapper objectMapper;
+
+    /**
+     * Formats of the export.
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        /**
+         * Returns the format with the given name, ignoring case.
+         *
+         * @param name The name of the format.
+         * @return The format.
+         * @throws IllegalArgumentException If there is no format with that name.
+         */
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Can't export superheroes as " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Exports every superhero in id order.
+     * The read-only transaction keeps the connection out of auto-commit, which some drivers need to honor the fetch size.
+     *
+     * @param format The format of the export.
+     * @param out    The stream to write to. It's flushed but not closed.
+     * @return The number of exported superheroes.
+     * @throws IOException If the stream can't be written, e.g. because the client went away.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream out) throws IOException {
+        try {
+            return format == Format.CSV ? exportCsv(out) : exportNdjson(out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            long count = dao.forEach(unchecked(superhero -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", superhero.getId());
+                generator.writeStringField("name", superhero.getName());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }));
+            generator.flush();
+            return count;
+        }
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write("id,name\n");
+        long count = dao.forEach(unchecked(superhero -> {
+            writer.write(Long.toString(superhero.getId()));
+            writer.write(',');
+            writer.write(csvField(superhero.getName()));
+            writer.write('\n');
+        }));
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Quotes a CSV field when it contains a separator, a quote or a line break, as described in RFC 4180.
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Consumer<Superhero> unchecked(RowWriter rowWriter) {
+        return superhero -> {
+            try {
+                rowWriter.write(superhero);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Superhero superhero) throws IOException;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.superheroes.mapper;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * Interface that maps entities to DTOs and DTOs to entities
@@ -31,4 +32,12 @@ public interface Mapper<D,E> {
      */
     Page<D> mapEntityPageToDtoPage(Page<E> e);
 
+    /**
+     * Maps a slice of entities to a slice of DTOs, keeping its concrete shape.
+     *
+     * @param e The slice of Entities.
+     * @return The corresponding slice of DTOs.
+     */
+    Slice<D> mapEntitySliceToDtoSlice(Slice<E> e);
+
 }
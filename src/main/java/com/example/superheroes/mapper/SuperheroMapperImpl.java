@@ -4,6 +4,7 @@ import com.example.superheroes.dto.SuperheroDto;
 import com.example.superheroes.model.Superhero;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -25,6 +26,18 @@ public class SuperheroMapperImpl implements Mapper<SuperheroDto,Superhero>{
         return new PageImpl<>(dtoBuffer, e.getPageable(), e.getTotalElements());
     }
 
+    /**
+     * Maps a Slice of entities to a Slice of DTOs.
+     * The slice maps itself, so pages and keyset slices keep their total or their next cursor.
+     *
+     * @param e Slice of Superhero entities
+     * @return Slice of SuperheroDto
+     */
+    @Override
+    public Slice<SuperheroDto> mapEntitySliceToDtoSlice(Slice<Superhero> e) {
+        return e.map(this::mapToDto);
+    }
+
     /**
      * Maps a SuperheroDto to a Superhero entity.
      *
@@ -1,27 +1,30 @@
 package com.example.superheroes.model;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 
 /**
- * The Superhero class represents a superhero entity with an ID and a name.
+ * The Superhero class represents a superhero entity with an ID, a name and a version.
  */
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-public class Superhero {
+public class Superhero implements Versioned {
     /**
      * The unique identifier (ID) of the superhero.
+     * Generated in blocks by the {@link com.example.superheroes.dao.SuperheroIdGenerator}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "superhero_id")
+    @GenericGenerator(name = "superhero_id", strategy = "com.example.superheroes.dao.SuperheroIdGenerator")
     @NotNull
     private Long id;
 
@@ -31,4 +34,20 @@ public class Superhero {
     @NotNull
     private String name;
 
+    /**
+     * The version of the superhero, incremented by every update.
+     * Updates made from an outdated version fail instead of overwriting the newer one.
+     */
+    @Version
+    private long version;
+
+    /**
+     * Creates a superhero that hasn't been updated yet.
+     *
+     * @param id   The unique identifier (ID) of the superhero.
+     * @param name The name of the superhero.
+     */
+    public Superhero(Long id, String name) {
+        this(id, name, 0);
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.superheroes.model;
+
+/**
+ * An entity with a version incremented by every update, used for optimistic locking and as HTTP validator.
+ */
+public interface Versioned {
+
+    /**
+     * Returns the version of the entity.
+     *
+     * @return The version, 0 until the entity is first updated.
+     */
+    long getVersion();
+}
@@ -0,0 +1,88 @@
+package com.example.superheroes.pagination;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset (seek) pagination: the sort order and the sort key and id of the last element returned.
+ * Clients only see it as an opaque token, so its format can change without breaking them.
+ */
+@Value
+public class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * The property the elements are sorted by.
+     */
+    String property;
+
+    /**
+     * The direction of the sort.
+     */
+    Sort.Direction direction;
+
+    /**
+     * The id of the last element returned, which breaks the ties of the sort key.
+     */
+    Long id;
+
+    /**
+     * The sort key of the last element returned, or null when sorting by id.
+     */
+    String key;
+
+    /**
+     * Builds the cursor after the given element.
+     *
+     * @param order The sort order.
+     * @param id    The id of the element.
+     * @param key   The sort key of the element, or null when sorting by id.
+     * @return The cursor after the element.
+     */
+    public static KeysetCursor of(Sort.Order order, Long id, String key) {
+        return new KeysetCursor(order.getProperty(), order.getDirection(), id, key);
+    }
+
+    /**
+     * Returns the sort order of the cursor.
+     *
+     * @return The sort order.
+     */
+    public Sort.Order toOrder() {
+        return new Sort.Order(direction, property);
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token.
+     *
+     * @return The token.
+     */
+    public String encode() {
+        String value = property + SEPARATOR + direction + SEPARATOR + id + (key != null ? SEPARATOR + key : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token, empty to start from the beginning.
+     * @return The cursor, or null if the token is empty.
+     * @throws IllegalArgumentException If the token is not valid.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]),
+                    parts.length == 4 ? parts[3] : null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + token, e);
+        }
+    }
+}
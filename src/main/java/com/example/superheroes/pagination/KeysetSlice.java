@@ -0,0 +1,40 @@
+package com.example.superheroes.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A slice of a keyset pagination. It has no total count, and carries the token of the next slice.
+ *
+ * @param <T> The type of the elements.
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private final String next;
+
+    public KeysetSlice(List<T> content, Pageable pageable, String next) {
+        super(content, pageable, next != null);
+        this.next = next;
+    }
+
+    /**
+     * Returns the token to pass as the after parameter to get the next slice.
+     *
+     * @return The token of the next slice, or null if this is the last one.
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Maps the elements keeping the token of the next slice.
+     */
+    @Override
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetSlice<>(getContent().stream().map(converter).collect(Collectors.toList()), getPageable(), next);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.model.Superhero;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact (radix) trie of lower-cased superhero names for prefix suggestions.
+ * Every node keeps the top-k superheroes below it in name order, so a suggestion
+ * is a walk down the prefix and a copy of at most k entries, whatever the number of names.
+ */
+@Component
+@ConditionalOnProperty(prefix = "superheroes.suggest", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PrefixTrie implements SuperheroIndex {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> keys = new HashMap<>();
+    private final Node root = new Node("");
+    private final int topK;
+
+    public PrefixTrie(@Value("${superheroes.suggest.top-k:10}") int topK) {
+        this.topK = topK;
+    }
+
+    @Override
+    public void put(Superhero superhero) {
+        lock.writeLock().lock();
+        try {
+            String previous = keys.remove(superhero.getId());
+            if (previous != null) {
+                delete(previous, superhero.getId());
+            }
+            String key = normalize(superhero.getName());
+            keys.put(superhero.getId(), key);
+            insert(key, new Entry(superhero.getId(), superhero.getName()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = keys.remove(id);
+            if (previous != null) {
+                delete(previous, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            keys.clear();
+            root.children = NO_CHILDREN;
+            root.terminals = NO_ENTRIES;
+            root.top = NO_ENTRIES;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the first superheroes in name order whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix of the names.
+     * @param limit  The maximum number of suggestions, capped to the top-k kept by each node.
+     * @return The suggested superheroes.
+     */
+    public List<Superhero> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                int index = node.childIndex(key.charAt(position));
+                if (index < 0) {
+                    return List.of();
+                }
+                Node child = node.children[index];
+                int common = commonPrefixLength(child.label, key, position);
+                if (common == key.length() - position) {
+                    node = child;
+                    break;
+                }
+                if (common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                position += common;
+            }
+            int count = Math.min(Math.max(limit, 0), node.top.length);
+            List<Superhero> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(new Superhero(node.top[i].id, node.top[i].name));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.childIndex(key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                // Splits the edge where the key diverges from it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                middle.top = child.top;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            position += common;
+        }
+        node.addTerminal(entry);
+        refreshTops(path);
+    }
+
+    private void delete(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.childIndex(key.charAt(position));
+            if (index < 0) {
+                return;
+            }
+            node = node.children[index];
+            path.add(node);
+            position += node.label.length();
+        }
+        node.removeTerminal(id);
+        // Prunes the empty nodes and merges the ones left with a single child, from the bottom up
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.terminals.length == 0 && current.children.length == 0) {
+                path.get(i - 1).removeChild(current);
+            } else if (current.terminals.length == 0 && current.children.length == 1) {
+                Node child = current.children[0];
+                current.label = current.label + child.label;
+                current.children = child.children;
+                current.terminals = child.terminals;
+                current.top = child.top;
+            }
+        }
+        refreshTops(path);
+    }
+
+    /**
+     * Recomputes the top-k of the nodes in the path, from the deepest one up to the root.
+     * The terminals of a node sort before its children, and its children are sorted by label,
+     * so its top-k is just the first k entries of its terminals followed by the tops of its children.
+     */
+    private void refreshTops(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Entry[] top = new Entry[topK];
+            int count = Math.min(node.terminals.length, topK);
+            System.arraycopy(node.terminals, 0, top, 0, count);
+            for (int c = 0; c < node.children.length && count < topK; c++) {
+                Entry[] childTop = node.children[c].top;
+                int copied = Math.min(childTop.length, topK - count);
+                System.arraycopy(childTop, 0, top, count, copied);
+                count += copied;
+            }
+            node.top = Arrays.copyOf(top, count);
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static String normalize(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A suggested superhero.
+     */
+    private static final class Entry {
+
+        private final long id;
+        private final String name;
+
+        Entry(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * A node of the trie. Its label is the text of the edge coming from its parent,
+     * and its children are sorted by the first character of their labels.
+     */
+    private static final class Node {
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label.charAt(0);
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addChild(Node child) {
+            int insertion = -childIndex(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertion);
+            grown[insertion] = child;
+            System.arraycopy(children, insertion, grown, insertion + 1, children.length - insertion);
+            children = grown;
+        }
+
+        void removeChild(Node child) {
+            int index = childIndex(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        void addTerminal(Entry entry) {
+            int insertion = 0;
+            while (insertion < terminals.length && terminals[insertion].id < entry.id) {
+                insertion++;
+            }
+            Entry[] grown = new Entry[terminals.length + 1];
+            System.arraycopy(terminals, 0, grown, 0, insertion);
+            grown[insertion] = entry;
+            System.arraycopy(terminals, insertion, grown, insertion + 1, terminals.length - insertion);
+            terminals = grown;
+        }
+
+        void removeTerminal(long id) {
+            terminals = Arrays.stream(terminals).filter(entry -> entry.id != id).toArray(Entry[]::new);
+        }
+    }
+}
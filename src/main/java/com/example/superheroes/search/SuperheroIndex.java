@@ -0,0 +1,28 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.model.Superhero;
+
+/**
+ * An in-memory index of superheroes kept up to date by the service write paths.
+ */
+public interface SuperheroIndex {
+
+    /**
+     * Adds a superhero to the index or replaces the indexed one with the same id.
+     *
+     * @param superhero The superhero to index.
+     */
+    void put(Superhero superhero);
+
+    /**
+     * Removes a superhero from the index.
+     *
+     * @param id The id of the superhero to remove.
+     */
+    void remove(Long id);
+
+    /**
+     * Removes every superhero from the index.
+     */
+    void clear();
+}
@@ -0,0 +1,34 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.dao.SuperheroJdbcDao;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads every {@link SuperheroIndex} from the database once the application context is initialized,
+ * before the web server accepts requests. The table is read once for all the indexes.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class SuperheroIndexLoader implements SmartInitializingSingleton {
+
+    private SuperheroJdbcDao dao;
+
+    private List<SuperheroIndex> indexes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        indexes.forEach(SuperheroIndex::clear);
+        long count = dao.forEach(superhero -> indexes.forEach(index -> index.put(superhero)));
+        log.info("Loaded {} superheroes into {} indexes in {} ms", count, indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
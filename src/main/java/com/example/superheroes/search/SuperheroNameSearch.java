@@ -0,0 +1,114 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Name search engine backed by the {@link TrigramNameIndex} and the {@link PrefixTrie}.
+ * It resolves, sorts and pages the matching ids in memory, then loads only the superheroes
+ * of the requested page by id, so neither the search nor its total count scans the table.
+ * Without the trigram index, the names of the {@link SuperheroReadReplica} are scanned instead,
+ * and with the replica the page is materialized from it rather than loaded.
+ * Prefix suggestions are served by the trie alone.
+ */
+@Component
+public class SuperheroNameSearch {
+
+    private static final List<String> SORTABLE_PROPERTIES = List.of("id", "name");
+
+    private final SuperheroRepository repository;
+    private final TrigramNameIndex index;
+    private final PrefixTrie trie;
+    private final SuperheroReadReplica replica;
+
+    public SuperheroNameSearch(SuperheroRepository repository, Optional<TrigramNameIndex> index, Optional<PrefixTrie> trie,
+                               Optional<SuperheroReadReplica> replica) {
+        this.repository = repository;
+        this.index = index.orElse(null);
+        this.trie = trie.orElse(null);
+        this.replica = replica.orElse(null);
+    }
+
+    /**
+     * Searches the superheroes whose name contains the given text, ignoring case.
+     *
+     * @param name     The text to search for.
+     * @param pageable The requested page.
+     * @return The page of matching superheroes, or empty if the index and the replica are disabled or can't sort as requested,
+     * in which case the search has to go to the database.
+     */
+    public Optional<Page<Superhero>> search(String name, Pageable pageable) {
+        if ((index == null && replica == null) || !pageable.getSort().stream().allMatch(order -> SORTABLE_PROPERTIES.contains(order.getProperty()))) {
+            return Optional.empty();
+        }
+        long[] ids = index != null ? index.search(name) : replica.search(name);
+        List<Long> pageIds = pageOf(sort(ids, pageable.getSort()), pageable);
+        if (replica != null) {
+            return Optional.of(new PageImpl<>(replica.findAllById(pageIds), pageable, ids.length));
+        }
+        Map<Long, Superhero> superheroes = repository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Superhero::getId, Function.identity()));
+        List<Superhero> content = pageIds.stream()
+                .map(superheroes::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return Optional.of(new PageImpl<>(content, pageable, ids.length));
+    }
+
+    /**
+     * Suggests the first superheroes in name order whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix of the names.
+     * @param limit  The maximum number of suggestions.
+     * @return The suggested superheroes, or empty if the trie is disabled.
+     */
+    public Optional<List<Superhero>> suggest(String prefix, int limit) {
+        return trie == null ? Optional.empty() : Optional.of(trie.suggest(prefix, limit));
+    }
+
+    private Long[] sort(long[] ids, Sort sort) {
+        Long[] sorted = Arrays.stream(ids).boxed().toArray(Long[]::new);
+        if (sort.isSorted()) {
+            Comparator<Long> comparator = null;
+            for (Sort.Order order : sort) {
+                Comparator<Long> byProperty = "name".equals(order.getProperty())
+                        ? Comparator.comparing(this::nameOf, Comparator.nullsLast(Comparator.naturalOrder()))
+                        : Comparator.naturalOrder();
+                if (order.isDescending()) {
+                    byProperty = byProperty.reversed();
+                }
+                comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+            }
+            // The ids are already ascending, so the sort is stable on the id for ties
+            Arrays.sort(sorted, comparator);
+        }
+        return sorted;
+    }
+
+    private String nameOf(long id) {
+        return index != null ? index.nameOf(id) : replica.nameOf(id);
+    }
+
+    private static List<Long> pageOf(Long[] ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Arrays.asList(ids);
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        return Arrays.asList(ids).subList(from, to);
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.model.Superhero;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory read model of the whole superhero table, kept in primitive arrays instead of entities.
+ * Ids map to rows through an open-addressing table with linear probing, versions are a column of longs
+ * and names are stored as UTF-8 in a single byte arena, off-heap when configured so.
+ * A row costs around 50 bytes plus its name, and the heap holds a few large arrays the GC barely traces
+ * instead of millions of entities, strings and cache entries. Superheroes are only materialized for the rows a read returns.
+ * Pages are served in id order; other sorts are left to the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "superheroes.replica", name = "enabled", havingValue = "true")
+public class SuperheroReadReplica implements SuperheroIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_ROWS = 1 << 10;
+    private static final int INITIAL_NAMES = 1 << 14;
+    private static final int MAX_NAMES = Integer.MAX_VALUE - 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final boolean offHeap;
+
+    // Open-addressing table from id to row, at most half full
+    private long[] slotIds;
+    private int[] slotRows;
+
+    // Columns of the rows, dense: a removed row is replaced by the last one
+    private long[] ids;
+    private long[] versions;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private int rows;
+
+    // Every id in ascending order, for the pages
+    private long[] sortedIds;
+
+    // UTF-8 names of the rows; replaced names stay as garbage until the arena is rebuilt
+    private ByteBuffer names;
+    private int namesEnd;
+
+    public SuperheroReadReplica(@Value("${superheroes.replica.off-heap:false}") boolean offHeap) {
+        this.offHeap = offHeap;
+        reset();
+    }
+
+    @Override
+    public void put(Superhero superhero) {
+        long id = superhero.getId();
+        if (id == EMPTY) {
+            throw new IllegalArgumentException("Can't replicate a superhero with id " + id);
+        }
+        byte[] name = superhero.getName().getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(id);
+            int row;
+            if (slotIds[slot] == EMPTY) {
+                if (rows == ids.length) {
+                    growRows();
+                }
+                row = rows++;
+                slotIds[slot] = id;
+                slotRows[slot] = row;
+                ids[row] = id;
+                insertSorted(id);
+                if (rows * 2L > slotIds.length) {
+                    rehash(slotIds.length * 2);
+                }
+            } else {
+                row = slotRows[slot];
+            }
+            versions[row] = superhero.getVersion();
+            // Dropped before appending, so a rebuild of the arena doesn't copy the replaced name
+            nameLengths[row] = 0;
+            nameOffsets[row] = append(name);
+            nameLengths[row] = name.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(id);
+            if (slotIds[slot] == EMPTY) {
+                return;
+            }
+            int row = slotRows[slot];
+            deleteSlot(slot);
+            int last = --rows;
+            if (row != last) {
+                ids[row] = ids[last];
+                versions[row] = versions[last];
+                nameOffsets[row] = nameOffsets[last];
+                nameLengths[row] = nameLengths[last];
+                slotRows[slotOf(ids[row])] = row;
+            }
+            removeSorted(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds a superhero by id.
+     *
+     * @param id The id of the superhero.
+     * @return A new instance of the superhero, or empty if it doesn't exist.
+     */
+    public Optional<Superhero> findById(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slotIds[slot] == EMPTY ? Optional.empty() : Optional.of(superheroAt(slotRows[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds superheroes by id, in the same order.
+     *
+     * @param ids The ids of the superheroes.
+     * @return New instances of the superheroes that exist, in the order of their ids.
+     */
+    public List<Superhero> findAllById(Collection<Long> ids) {
+        List<Superhero> superheroes = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                int slot = slotOf(id);
+                if (slotIds[slot] != EMPTY) {
+                    superheroes.add(superheroAt(slotRows[slot]));
+                }
+            }
+            return superheroes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a page of superheroes in id order.
+     *
+     * @param pageable The requested page.
+     * @return The page, or empty if it's sorted by anything but the id.
+     */
+    public Optional<Page<Superhero>> findAll(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.stream().count() > 1 || sort.stream().anyMatch(order -> !"id".equals(order.getProperty()))) {
+            return Optional.empty();
+        }
+        boolean descending = sort.stream().anyMatch(Sort.Order::isDescending);
+        lock.readLock().lock();
+        try {
+            int from = pageable.isUnpaged() ? 0 : (int) Math.min(pageable.getOffset(), rows);
+            int to = pageable.isUnpaged() ? rows : (int) Math.min((long) from + pageable.getPageSize(), rows);
+            List<Superhero> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                long id = sortedIds[descending ? rows - 1 - i : i];
+                content.add(superheroAt(slotRows[slotOf(id)]));
+            }
+            return Optional.of(new PageImpl<>(content, pageable, rows));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the superheroes whose name contains the given text, ignoring case, by scanning every name.
+     *
+     * @param name The text to search for.
+     * @return The ids of the matching superheroes in ascending order.
+     */
+    public long[] search(String name) {
+        lock.readLock().lock();
+        try {
+            long[] matches = new long[rows];
+            int count = 0;
+            for (int row = 0; row < rows; row++) {
+                if (TrigramNameIndex.containsIgnoreCase(nameAt(row), name)) {
+                    matches[count++] = ids[row];
+                }
+            }
+            matches = Arrays.copyOf(matches, count);
+            Arrays.sort(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the name of a superhero.
+     *
+     * @param id The id of the superhero.
+     * @return The name of the superhero, or null if it doesn't exist.
+     */
+    public String nameOf(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slotIds[slot] == EMPTY ? null : nameAt(slotRows[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of superheroes.
+     *
+     * @return The number of superheroes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the memory allocated by the replica, on and off the heap, including the free capacity.
+     *
+     * @return The allocated bytes.
+     */
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return slotIds.length * (long) (Long.BYTES + Integer.BYTES)
+                    + ids.length * (long) (Long.BYTES * 2 + Integer.BYTES * 2)
+                    + sortedIds.length * (long) Long.BYTES
+                    + names.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reset() {
+        slotIds = new long[INITIAL_ROWS * 2];
+        Arrays.fill(slotIds, EMPTY);
+        slotRows = new int[INITIAL_ROWS * 2];
+        ids = new long[INITIAL_ROWS];
+        versions = new long[INITIAL_ROWS];
+        nameOffsets = new int[INITIAL_ROWS];
+        nameLengths = new int[INITIAL_ROWS];
+        sortedIds = new long[INITIAL_ROWS];
+        rows = 0;
+        names = allocate(INITIAL_NAMES);
+        namesEnd = 0;
+    }
+
+    private Superhero superheroAt(int row) {
+        return new Superhero(ids[row], nameAt(row), versions[row]);
+    }
+
+    private String nameAt(int row) {
+        byte[] name = new byte[nameLengths[row]];
+        // Readers share the lock, so each one reads through its own position
+        names.duplicate().position(nameOffsets[row]).get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the slot of the id, or the empty slot where it would go.
+     */
+    private int slotOf(long id) {
+        int mask = slotIds.length - 1;
+        int slot = hash(id) & mask;
+        while (slotIds[slot] != EMPTY && slotIds[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Empties a slot by shifting back the following entries of its probe sequence, so no tombstones are needed.
+     */
+    private void deleteSlot(int slot) {
+        int mask = slotIds.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slotIds[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(slotIds[next]) & mask;
+            // The entry can fill the hole only if the hole lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slotIds[hole] = slotIds[next];
+                slotRows[hole] = slotRows[next];
+                hole = next;
+            }
+        }
+        slotIds[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        slotIds = new long[capacity];
+        Arrays.fill(slotIds, EMPTY);
+        slotRows = new int[capacity];
+        for (int row = 0; row < rows; row++) {
+            int slot = slotOf(ids[row]);
+            slotIds[slot] = ids[row];
+            slotRows[slot] = row;
+        }
+    }
+
+    private void growRows() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+        sortedIds = Arrays.copyOf(sortedIds, capacity);
+    }
+
+    private void insertSorted(long id) {
+        // Ids are mostly appended in ascending order, like when the replica is loaded
+        int size = rows - 1;
+        if (size == 0 || sortedIds[size - 1] < id) {
+            sortedIds[size] = id;
+            return;
+        }
+        int insertion = -Arrays.binarySearch(sortedIds, 0, size, id) - 1;
+        System.arraycopy(sortedIds, insertion, sortedIds, insertion + 1, size - insertion);
+        sortedIds[insertion] = id;
+    }
+
+    private void removeSorted(long id) {
+        int position = Arrays.binarySearch(sortedIds, 0, rows + 1, id);
+        System.arraycopy(sortedIds, position + 1, sortedIds, position, rows - position);
+    }
+
+    /**
+     * Appends a name to the arena, rebuilding it without the garbage when it's full.
+     *
+     * @return The offset of the name.
+     */
+    private int append(byte[] name) {
+        if (names.capacity() - namesEnd < name.length) {
+            long live = 0;
+            for (int row = 0; row < rows; row++) {
+                live += nameLengths[row];
+            }
+            long capacity = Math.max(INITIAL_NAMES, (live + name.length) * 2);
+            if (live + name.length > MAX_NAMES) {
+                throw new IllegalStateException("The names of the superheroes don't fit in a 2 GB arena");
+            }
+            rebuildNames((int) Math.min(capacity, MAX_NAMES));
+        }
+        int offset = namesEnd;
+        names.duplicate().position(offset).put(name);
+        namesEnd += name.length;
+        return offset;
+    }
+
+    private void rebuildNames(int capacity) {
+        ByteBuffer rebuilt = allocate(capacity);
+        for (int row = 0; row < rows; row++) {
+            int offset = rebuilt.position();
+            rebuilt.put(names.duplicate().position(nameOffsets[row]).limit(nameOffsets[row] + nameLengths[row]));
+            nameOffsets[row] = offset;
+        }
+        namesEnd = rebuilt.position();
+        names = rebuilt;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
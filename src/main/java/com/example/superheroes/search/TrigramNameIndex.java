@@ -0,0 +1,252 @@
+package com.example.superheroes.search;
+
+import com.example.superheroes.model.Superhero;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over superhero names for case-insensitive substring search.
+ * Every trigram of the lower-cased names maps to the sorted ids of the superheroes containing it.
+ * A search intersects the postings of the query trigrams and verifies the candidates,
+ * so it never scans the whole table. Queries shorter than a trigram scan the indexed names instead.
+ */
+@Component
+@ConditionalOnProperty(prefix = "superheroes.search.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TrigramNameIndex implements SuperheroIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    @Override
+    public void put(Superhero superhero) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(superhero.getId(), superhero.getName());
+            if (previous != null) {
+                removePostings(superhero.getId(), previous);
+            }
+            for (long gram : trigrams(superhero.getName())) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(superhero.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the superheroes whose name contains the given text, ignoring case.
+     *
+     * @param name The text to search for.
+     * @return The ids of the matching superheroes in ascending order.
+     */
+    public long[] search(String name) {
+        lock.readLock().lock();
+        try {
+            long[] grams = trigrams(name);
+            if (grams.length == 0) {
+                return scan(name);
+            }
+            List<Postings> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retainAll(candidates, count);
+            }
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (containsIgnoreCase(names.get(candidates[i]), name)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed name of a superhero.
+     *
+     * @param id The id of the superhero.
+     * @return The name of the superhero, or null if it isn't indexed.
+     */
+    public String nameOf(long id) {
+        lock.readLock().lock();
+        try {
+            return names.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed superheroes.
+     *
+     * @return The number of indexed superheroes.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] scan(String name) {
+        long[] ids = new long[names.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            if (containsIgnoreCase(entry.getValue(), name)) {
+                ids[count++] = entry.getKey();
+            }
+        }
+        long[] matches = Arrays.copyOf(ids, count);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    private void removePostings(Long id, String name) {
+        for (long gram : trigrams(name)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct trigrams of the lower-cased text, each one packed into a long.
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) Character.toLowerCase(text.charAt(i)) << 32)
+                    | ((long) Character.toLowerCase(text.charAt(i + 1)) << 16)
+                    | Character.toLowerCase(text.charAt(i + 2));
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorted ids of the superheroes containing a trigram.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            // Ids are mostly appended in ascending order, like when the index is loaded
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -position - 1;
+            grow();
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in the candidates only the ids also present in these postings.
+         *
+         * @return The new number of candidates.
+         */
+        int retainAll(long[] candidates, int count) {
+            int retained = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int position = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[retained++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return retained;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.superheroes.service;
 
+import com.example.superheroes.dto.BatchResult;
+import com.example.superheroes.pagination.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface GenericService<E> {
@@ -24,6 +29,41 @@ public interface GenericService<E> {
      */
     Optional<E> update(Long id, E entity);
 
+    /**
+     * Updates an instance already stored in the database, provided it is still at the expected version.
+     *
+     * @param id              Identifies a unique instance in the database.
+     * @param entity          Representation for the record desired to update in the database.
+     * @param expectedVersion The version the client last read, or null to update whatever the version.
+     * @return The entity stored in the database, or empty if it doesn't exist.
+     * @throws org.springframework.dao.OptimisticLockingFailureException If the stored entity is at another version.
+     */
+    Optional<E> update(Long id, E entity, Long expectedVersion);
+
+    /**
+     * Creates every given entity whose id isn't already stored, in chunks.
+     *
+     * @param entities The entities to store.
+     * @return The result of each entity, in the same order.
+     */
+    List<BatchResult<E>> createAll(List<E> entities);
+
+    /**
+     * Updates every given entity that is already stored, identified by its id, in chunks.
+     *
+     * @param entities The entities with their updated data.
+     * @return The result of each entity, in the same order.
+     */
+    List<BatchResult<E>> updateAll(List<E> entities);
+
+    /**
+     * Deletes every entity identified by the given ids, in chunks.
+     *
+     * @param ids The ids of the entities to delete.
+     * @return The result of each id, in the same order.
+     */
+    List<BatchResult<E>> deleteAllById(List<Long> ids);
+
     /**
      * Deletes the entity identified by the parameter id.
      *
@@ -39,6 +79,22 @@ public interface GenericService<E> {
      */
     Optional<E> findById(Long id);
 
+    /**
+     * Retrieves the entities identified by the given ids, in the same order.
+     *
+     * @param ids Identify the instances in the database.
+     * @return The entities that exist, in the order of their ids.
+     */
+    List<E> findAllById(List<Long> ids);
+
+    /**
+     * Returns a stamp that changes whenever an entity is written, cheap enough to validate listings with.
+     * It's only comparable with the stamps of the same running instance.
+     *
+     * @return The current modification stamp.
+     */
+    String modificationStamp();
+
     /**
      * Returns a Page of entities meeting the paging restriction provided in the Pageable object.
      *
@@ -55,4 +111,25 @@ public interface GenericService<E> {
      * @return A page of entities.
      */
     Page<E> findAllByName(String name,Pageable pageable);
+
+    /**
+     * Returns a Slice of entities, optionally filtered by name, without counting them.
+     *
+     * @param name     Represents the name of the entity, or null for every entity.
+     * @param pageable Pagination information.
+     * @return A slice of entities.
+     */
+    Slice<E> findSlice(String name, Pageable pageable);
+
+    /**
+     * Returns a Slice of entities after the given cursor, optionally filtered by name, without counting them.
+     * The cost of a slice doesn't depend on how deep it is.
+     *
+     * @param name  Represents the name of the entity, or null for every entity.
+     * @param after The cursor of the last entity already returned, or null to start from the beginning.
+     * @param size  The maximum number of entities to return.
+     * @param sort  The sort of the first slice. The following ones keep the sort of their cursor.
+     * @return A slice of entities carrying the cursor of the next one.
+     */
+    Slice<E> findAllAfter(String name, KeysetCursor after, int size, Sort sort);
 }
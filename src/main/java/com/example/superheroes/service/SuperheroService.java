@@ -4,6 +4,7 @@ import com.example.superheroes.model.Superhero;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -25,6 +26,15 @@ public interface SuperheroService extends GenericService<Superhero> {
      */
     Page<Superhero> findAllByName(String name, Pageable page);
 
+    /**
+     * Suggests the first superheroes in name order whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The prefix of the names.
+     * @param limit The maximum number of suggestions.
+     * @return The suggested superheroes.
+     */
+    List<Superhero> suggest(String prefix, int limit);
+
     /**
      * Retrieves a superhero by their unique identifier (ID).
      *
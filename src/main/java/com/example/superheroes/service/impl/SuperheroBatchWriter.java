@@ -0,0 +1,192 @@
+package com.example.superheroes.service.impl;
+
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.dto.BatchResult;
+import com.example.superheroes.model.Superhero;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes chunks of a batch request, each one in its own transaction, as well as single renames and deletions.
+ * A chunk checks the existence of all its ids with a single query, and its inserts and updates are
+ * flushed together at commit, so Hibernate sends them as JDBC batches.
+ * The service keeps the cache coherent once these transactions have committed.
+ */
+@Component
+public class SuperheroBatchWriter {
+
+    private final SuperheroRepository repository;
+
+    private final int chunkSize;
+
+    public SuperheroBatchWriter(SuperheroRepository repository, @Value("${superheroes.batch.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the number of items written in a single transaction.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Creates the superheroes of a chunk whose id doesn't exist yet.
+     *
+     * @param chunk  The superheroes to create.
+     * @param offset The position of the chunk in the request.
+     * @return The result of each superhero.
+     */
+    @Transactional
+    public List<BatchResult<Superhero>> create(List<Superhero> chunk, int offset) {
+        Set<Long> existing = findExistingIds(chunk.stream().map(Superhero::getId));
+        // The id is generated, like in a single create, so the new superheroes are persisted and not merged
+        List<Superhero> created = repository.saveAll(chunk.stream()
+                .filter(superhero -> !existing.contains(superhero.getId()))
+                .map(superhero -> new Superhero(null, superhero.getName()))
+                .collect(Collectors.toList()));
+        Iterator<Superhero> createdIterator = created.iterator();
+        List<BatchResult<Superhero>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i).getId();
+            if (existing.contains(id)) {
+                results.add(new BatchResult<>(offset + i, id, BatchResult.Status.CONFLICT, null));
+            } else {
+                Superhero superhero = createdIterator.next();
+                results.add(new BatchResult<>(offset + i, superhero.getId(), BatchResult.Status.CREATED, superhero));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Renames the existing superheroes of a chunk.
+     *
+     * @param chunk  The superheroes to update, identified by their id.
+     * @param offset The position of the chunk in the request.
+     * @return The result of each superhero.
+     */
+    @Transactional
+    public List<BatchResult<Superhero>> update(List<Superhero> chunk, int offset) {
+        List<Long> ids = distinctIds(chunk.stream().map(Superhero::getId));
+        Map<Long, Superhero> existing = ids.isEmpty() ? Map.of() : repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Superhero::getId, Function.identity()));
+        List<BatchResult<Superhero>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Superhero superhero = chunk.get(i);
+            Superhero stored = superhero.getId() != null ? existing.get(superhero.getId()) : null;
+            if (stored == null) {
+                results.add(new BatchResult<>(offset + i, superhero.getId(), BatchResult.Status.NOT_FOUND, null));
+            } else {
+                // Managed entities are flushed at commit, as ordered and batched updates
+                stored.setName(superhero.getName());
+                results.add(new BatchResult<>(offset + i, stored.getId(), BatchResult.Status.UPDATED, stored));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Renames a superhero, provided it's still at the expected version.
+     * The superhero stays managed from the check to the commit, so a concurrent update committed
+     * after the check also fails, through the version column.
+     *
+     * @param id              The id of the superhero to rename.
+     * @param name            The new name.
+     * @param expectedVersion The version the client last read, or null to skip the check.
+     * @return The renamed superhero and its previous name, or empty if it doesn't exist.
+     * @throws OptimisticLockingFailureException If the superhero is at another version.
+     */
+    @Transactional
+    public Optional<Renamed> rename(Long id, String name, Long expectedVersion) {
+        return repository.findById(id).map(superhero -> {
+            if (expectedVersion != null && superhero.getVersion() != expectedVersion) {
+                throw new OptimisticLockingFailureException(String.format("%s entity with id %s is at version %s, not %s",
+                        Superhero.class, id, superhero.getVersion(), expectedVersion));
+            }
+            String previousName = superhero.getName();
+            superhero.setName(name);
+            // Flushed now so the returned superhero already has its new version
+            repository.saveAndFlush(superhero);
+            return new Renamed(previousName, superhero);
+        });
+    }
+
+    /**
+     * Deletes a superhero.
+     * It's looked up and deleted in the same transaction, so the deleted entity is still managed.
+     *
+     * @param id The id of the superhero to delete.
+     * @return The deleted superhero, or empty if it doesn't exist.
+     */
+    @Transactional
+    public Optional<Superhero> deleteById(Long id) {
+        return repository.findById(id).map(superhero -> {
+            repository.delete(superhero);
+            return superhero;
+        });
+    }
+
+    /**
+     * Deletes the existing superheroes of a chunk with a single statement.
+     *
+     * @param chunk  The ids of the superheroes to delete.
+     * @param offset The position of the chunk in the request.
+     * @return The result of each id.
+     */
+    @Transactional
+    public List<BatchResult<Superhero>> delete(List<Long> chunk, int offset) {
+        Set<Long> existing = findExistingIds(chunk.stream());
+        repository.deleteAllByIdInBatch(existing);
+        List<BatchResult<Superhero>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i);
+            BatchResult.Status status = existing.contains(id) ? BatchResult.Status.DELETED : BatchResult.Status.NOT_FOUND;
+            results.add(new BatchResult<>(offset + i, id, status, null));
+        }
+        return results;
+    }
+
+    /**
+     * Returns which of the given ids exist, with a single WHERE id IN (...) query.
+     */
+    private Set<Long> findExistingIds(Stream<Long> ids) {
+        List<Long> distinctIds = distinctIds(ids);
+        return new HashSet<>(distinctIds.isEmpty() ? List.of() : repository.findExistingIds(distinctIds));
+    }
+
+    private static List<Long> distinctIds(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * A renamed superhero, with the name it had before.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Renamed {
+
+        private final String previousName;
+
+        private final Superhero superhero;
+    }
+}
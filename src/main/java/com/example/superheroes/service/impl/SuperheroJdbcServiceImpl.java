@@ -0,0 +1,62 @@
+package com.example.superheroes.service.impl;
+
+import com.example.superheroes.cache.SuperheroCache;
+import com.example.superheroes.dao.SuperheroJdbcDao;
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.SuperheroIndex;
+import com.example.superheroes.search.SuperheroNameSearch;
+import com.example.superheroes.search.SuperheroReadReplica;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the SuperheroService interface whose lookups bypass Hibernate.
+ * Reads by id, listings, name searches and counts that miss the cache run through {@link SuperheroJdbcDao},
+ * which maps the rows straight into detached superheroes, without a session or entity snapshots.
+ * Writes are the same as in {@link SuperheroServiceImpl}.
+ * Selected with superheroes.service.implementation=jdbc.
+ */
+@Service
+@ConditionalOnProperty(prefix = "superheroes.service", name = "implementation", havingValue = "jdbc")
+public class SuperheroJdbcServiceImpl extends SuperheroServiceImpl {
+
+    private final SuperheroJdbcDao jdbcDao;
+
+    public SuperheroJdbcServiceImpl(SuperheroRepository repository, SuperheroJdbcDao jdbcDao, SuperheroCache cache,
+                                    SuperheroNameSearch nameSearch, List<SuperheroIndex> indexes,
+                                    SuperheroBatchWriter batchWriter, Optional<SuperheroReadReplica> replica) {
+        super(repository, jdbcDao, cache, nameSearch, indexes, batchWriter, replica);
+        this.jdbcDao = jdbcDao;
+    }
+
+    @Override
+    protected Optional<Superhero> loadById(Long id) {
+        return jdbcDao.findById(id);
+    }
+
+    @Override
+    protected Slice<Superhero> loadSlice(Pageable pageable) {
+        return jdbcDao.findSlice(pageable);
+    }
+
+    @Override
+    protected Slice<Superhero> loadSliceByName(String name, Pageable pageable) {
+        return jdbcDao.findSliceByNameContainingIgnoreCase(name, pageable);
+    }
+
+    @Override
+    protected long loadCount() {
+        return jdbcDao.count();
+    }
+
+    @Override
+    protected long loadCountByName(String name) {
+        return jdbcDao.countByNameContainingIgnoreCase(name);
+    }
+}
@@ -1,27 +1,65 @@
 package com.example.superheroes.service.impl;
 
 import com.example.superheroes.annotation.ExecutionTime;
+import com.example.superheroes.cache.SuperheroCache;
+import com.example.superheroes.dao.SuperheroJdbcDao;
 import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.dto.BatchResult;
 import com.example.superheroes.model.Superhero;
+import com.example.superheroes.pagination.KeysetCursor;
+import com.example.superheroes.search.SuperheroIndex;
+import com.example.superheroes.search.SuperheroNameSearch;
+import com.example.superheroes.search.SuperheroReadReplica;
 import com.example.superheroes.service.SuperheroService;
 import lombok.AllArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the SuperheroService interface.
+ * Reads are served through the {@link SuperheroCache} and writes keep it coherent,
+ * as well as every in-memory {@link SuperheroIndex}.
+ * Pages are read as slices and their totals come from the counters of the cache, so a page costs a single query.
+ * When the {@link SuperheroReadReplica} is enabled, reads by id, listings and name searches are served from it instead.
+ * Reads run in read-only transactions, which are routed to the replica database when one is configured.
+ * Their Hibernate sessions are never flushed and load the superheroes read-only, without the snapshots of dirty checking.
+ * The database reads behind the cache go through the load methods, which {@link SuperheroJdbcServiceImpl} overrides.
  */
 @Service
+@ConditionalOnProperty(prefix = "superheroes.service", name = "implementation", havingValue = "jpa", matchIfMissing = true)
 @AllArgsConstructor
 public class SuperheroServiceImpl implements SuperheroService {
 
 
     private SuperheroRepository repository;
 
+    private SuperheroJdbcDao jdbcDao;
+
+    private SuperheroCache cache;
+
+    private SuperheroNameSearch nameSearch;
+
+    private List<SuperheroIndex> indexes;
+
+    private SuperheroBatchWriter batchWriter;
+
+    private Optional<SuperheroReadReplica> replica;
+
     /**
      * Find all superheroes.
      *
@@ -29,10 +67,11 @@ public class SuperheroServiceImpl implements SuperheroService {
      * @return A Page containing superheroes.
      */
     @Override
-    @Cacheable(cacheNames = "superheroesCache")
     @ExecutionTime
+    @Transactional(readOnly = true)
     public Page<Superhero> findAll(Pageable pageable) {
-        return repository.findAll(pageable);
+        return replica.flatMap(r -> r.findAll(pageable)).orElseGet(() -> cache.findAll(pageable, () -> PageableExecutionUtils.getPage(
+                loadSlice(pageable).getContent(), pageable, () -> cache.count(this::loadCount))));
     }
 
     /**
@@ -43,10 +82,73 @@ public class SuperheroServiceImpl implements SuperheroService {
      * @return A Page containing matching superheroes.
      */
     @Override
-    @Cacheable(cacheNames = "superheroesCache")
     @ExecutionTime
+    @Transactional(readOnly = true)
     public Page<Superhero> findAllByName(String name,Pageable pageable) {
-        return repository.findAllByNameContainingIgnoreCase(name,pageable);
+        if (replica.isPresent()) {
+            Optional<Page<Superhero>> page = nameSearch.search(name, pageable);
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
+        return cache.findAllByName(name, pageable, () -> nameSearch.search(name, pageable)
+                .orElseGet(() -> PageableExecutionUtils.getPage(
+                        loadSliceByName(name, pageable).getContent(), pageable,
+                        () -> cache.countByName(name, () -> loadCountByName(name)))));
+    }
+
+    /**
+     * Find superheroes, optionally by name, without counting them.
+     * Name searches are served by the in-memory index when it's enabled.
+     *
+     * @param name     The name to search for, or null for every superhero.
+     * @param pageable The Pageable object for pagination.
+     * @return A Slice containing superheroes.
+     */
+    @Override
+    @ExecutionTime
+    @Transactional(readOnly = true)
+    public Slice<Superhero> findSlice(String name, Pageable pageable) {
+        if (name == null) {
+            return loadSlice(pageable);
+        }
+        return nameSearch.search(name, pageable).<Slice<Superhero>>map(page -> page)
+                .orElseGet(() -> loadSliceByName(name, pageable));
+    }
+
+    /**
+     * Find superheroes after a cursor, optionally by name.
+     * Sorted by id unless the first slice asks for another order.
+     *
+     * @param name  The name to search for, or null for every superhero.
+     * @param after The cursor of the last superhero already returned, or null to start from the beginning.
+     * @param size  The maximum number of superheroes to return.
+     * @param sort  The sort of the first slice.
+     * @return A Slice containing superheroes and the cursor of the next one.
+     */
+    @Override
+    @ExecutionTime
+    @Transactional(readOnly = true)
+    public Slice<Superhero> findAllAfter(String name, KeysetCursor after, int size, Sort sort) {
+        Sort.Order order = after != null ? after.toOrder() : sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        return repository.findAllAfter(name, order, after, size);
+    }
+
+    /**
+     * Suggest superheroes by name prefix.
+     * Served from memory by the prefix trie, or by the database when the trie is disabled.
+     *
+     * @param prefix The prefix of the names.
+     * @param limit  The maximum number of suggestions.
+     * @return The suggested superheroes in name order.
+     */
+    @Override
+    @ExecutionTime
+    @Transactional(readOnly = true)
+    public List<Superhero> suggest(String prefix, int limit) {
+        return nameSearch.suggest(prefix, limit).orElseGet(() -> repository
+                .findAllByNameStartingWithIgnoreCase(prefix, PageRequest.of(0, limit, Sort.by("name", "id")))
+                .getContent());
     }
 
     /**
@@ -56,26 +158,64 @@ public class SuperheroServiceImpl implements SuperheroService {
      * @return An Optional containing the superhero if found.
      */
     @Override
-    @Cacheable(cacheNames = "superheroesCache")
     @ExecutionTime
+    @Transactional(readOnly = true)
     public Optional<Superhero> findById(Long id) {
-        return repository.findById(id);
+        if (replica.isPresent()) {
+            return replica.get().findById(id);
+        }
+        return cache.findById(id, () -> loadById(id));
+    }
+
+    /**
+     * Find superheroes by ID, in the same order.
+     * The cached ones are served from the cache and the others are fetched with a single query.
+     *
+     * @param ids The IDs of the superheroes to find.
+     * @return The superheroes that exist, in the order of their IDs.
+     */
+    @Override
+    @ExecutionTime
+    @Transactional(readOnly = true)
+    public List<Superhero> findAllById(List<Long> ids) {
+        if (replica.isPresent()) {
+            return replica.get().findAllById(ids);
+        }
+        return cache.findAllById(ids, repository::findAllById);
+    }
+
+    /**
+     * Returns the modification stamp of the cache, which changes with every write of this service.
+     *
+     * @return The current modification stamp.
+     */
+    @Override
+    public String modificationStamp() {
+        return cache.modificationStamp();
     }
 
     /**
      * Create a superhero.
+     * With an id, a single conditional INSERT checks it and creates the superhero with a generated one.
+     * Without an id, the superhero is persisted with an id from the pooled generator, without calling the sequence.
+     * The new superhero is cached, so reading it back doesn't query the database.
      *
-     * @param superhero The superhero to create.
+     * @param superhero The superhero to create, whose id is optional.
      * @return An Optional containing the created superhero, or empty if it already exists.
      */
     @Override
     @ExecutionTime
     public Optional<Superhero> create(Superhero superhero) {
-        if (repository.findById(superhero.getId()).isPresent()) {
-            return Optional.empty();
-        } else {
-            return Optional.of(repository.save(superhero));
-        }
+        return cache.writing(() -> {
+            Optional<Superhero> created = superhero.getId() == null
+                    ? Optional.of(repository.save(new Superhero(null, superhero.getName())))
+                    : jdbcDao.insertIfAbsent(superhero.getId(), superhero.getName());
+            created.ifPresent(c -> {
+                cache.created(c);
+                indexes.forEach(index -> index.put(c));
+            });
+            return created;
+        });
     }
 
     /**
@@ -88,23 +228,168 @@ public class SuperheroServiceImpl implements SuperheroService {
     @Override
     @ExecutionTime
     public Optional<Superhero> update(Long id, Superhero s) {
-        return repository.findById(id).map(superhero -> {
-            superhero.setId(s.getId());
-            superhero.setName(s.getName());
-            return repository.save(superhero);
-        });
+        return update(id, s, null);
+    }
+
+    /**
+     * Update a superhero by ID, provided it's still at the expected version.
+     * Only the name is taken from the given superhero: the ID of the path identifies the superhero to update.
+     * The check and the update run in a single transaction, so a concurrent update committed after the check
+     * also fails, through the version column. The cache is updated once it has committed.
+     *
+     * @param id              The ID of the superhero to update.
+     * @param s               The updated superhero information.
+     * @param expectedVersion The version the client last read, or null to skip the check.
+     * @return An Optional containing the updated superhero, or empty if the superhero doesn't exist.
+     * @throws OptimisticLockingFailureException If the superhero is at another version.
+     */
+    @Override
+    @ExecutionTime
+    public Optional<Superhero> update(Long id, Superhero s, Long expectedVersion) {
+        return cache.writing(() -> batchWriter.rename(id, s.getName(), expectedVersion).map(renamed -> {
+            Superhero updated = renamed.getSuperhero();
+            cache.updated(renamed.getPreviousName(), updated);
+            indexes.forEach(index -> index.put(updated));
+            return updated;
+        }));
+    }
+
+    /**
+     * Create superheroes in chunks, skipping the ones whose id already exists.
+     *
+     * @param superheroes The superheroes to create.
+     * @return The result of each superhero, CREATED or CONFLICT.
+     */
+    @Override
+    @ExecutionTime
+    public List<BatchResult<Superhero>> createAll(List<Superhero> superheroes) {
+        return writeInChunks(superheroes, batchWriter::create);
+    }
+
+    /**
+     * Update superheroes in chunks, identified by their ID.
+     *
+     * @param superheroes The updated superheroes.
+     * @return The result of each superhero, UPDATED or NOT_FOUND.
+     */
+    @Override
+    @ExecutionTime
+    public List<BatchResult<Superhero>> updateAll(List<Superhero> superheroes) {
+        return writeInChunks(superheroes, batchWriter::update);
+    }
+
+    /**
+     * Delete superheroes in chunks by ID.
+     *
+     * @param ids The IDs of the superheroes to delete.
+     * @return The result of each ID, DELETED or NOT_FOUND.
+     */
+    @Override
+    @ExecutionTime
+    public List<BatchResult<Superhero>> deleteAllById(List<Long> ids) {
+        return writeInChunks(ids, batchWriter::delete);
     }
 
     /**
      * Delete a superhero by ID.
      *
      * @param id The ID of the superhero to delete.
+     * @throws EmptyResultDataAccessException If the superhero doesn't exist.
      */
     @Override
     @ExecutionTime
     public void deleteById(Long id) {
-        repository.deleteById(id);
+        cache.writing(() -> {
+            Superhero superhero = batchWriter.deleteById(id).orElseThrow(() -> new EmptyResultDataAccessException(
+                    String.format("No %s entity with id %s exists!", Superhero.class, id), 1));
+            cache.deleted(superhero);
+            indexes.forEach(index -> index.remove(id));
+            return null;
+        });
     }
 
+    /**
+     * Loads a superhero by ID from the database, on a cache miss.
+     *
+     * @param id The ID of the superhero.
+     * @return An Optional containing the superhero if found.
+     */
+    protected Optional<Superhero> loadById(Long id) {
+        return repository.findById(id);
+    }
 
+    /**
+     * Loads a slice of superheroes from the database, without counting them.
+     *
+     * @param pageable The Pageable object for pagination.
+     * @return A Slice containing superheroes.
+     */
+    protected Slice<Superhero> loadSlice(Pageable pageable) {
+        return repository.findAllBy(pageable);
+    }
+
+    /**
+     * Loads a slice of the superheroes whose name contains the given one from the database, without counting them.
+     *
+     * @param name     The name to search for.
+     * @param pageable The Pageable object for pagination.
+     * @return A Slice containing matching superheroes.
+     */
+    protected Slice<Superhero> loadSliceByName(String name, Pageable pageable) {
+        return repository.findSliceByNameContainingIgnoreCase(name, pageable);
+    }
+
+    /**
+     * Counts the superheroes in the database, on a miss of the cache counters.
+     *
+     * @return The number of superheroes.
+     */
+    protected long loadCount() {
+        return repository.count();
+    }
+
+    /**
+     * Counts the superheroes whose name contains the given one in the database, on a miss of the cache counters.
+     *
+     * @param name The name to search for.
+     * @return The number of matching superheroes.
+     */
+    protected long loadCountByName(String name) {
+        return repository.countByNameContainingIgnoreCase(name);
+    }
+
+    /**
+     * Writes the items chunk by chunk, each chunk in its own transaction, then keeps the cache and indexes coherent.
+     */
+    private <T> List<BatchResult<Superhero>> writeInChunks(List<T> items,
+                                                          BiFunction<List<T>, Integer, List<BatchResult<Superhero>>> write) {
+        List<BatchResult<Superhero>> results = new ArrayList<>(items.size());
+        int chunkSize = batchWriter.getChunkSize();
+        for (int offset = 0; offset < items.size(); offset += chunkSize) {
+            List<T> chunk = items.subList(offset, Math.min(items.size(), offset + chunkSize));
+            int chunkOffset = offset;
+            results.addAll(cache.writing(() -> {
+                List<BatchResult<Superhero>> chunkResults = write.apply(chunk, chunkOffset);
+                batchWritten(chunkResults);
+                return chunkResults;
+            }));
+        }
+        return results;
+    }
+
+    private void batchWritten(List<BatchResult<Superhero>> results) {
+        List<Superhero> written = results.stream()
+                .filter(result -> result.getStatus() == BatchResult.Status.CREATED || result.getStatus() == BatchResult.Status.UPDATED)
+                .map(BatchResult::getItem)
+                .collect(Collectors.toList());
+        List<Long> deletedIds = results.stream()
+                .filter(result -> result.getStatus() == BatchResult.Status.DELETED)
+                .map(BatchResult::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        long created = results.stream().filter(result -> result.getStatus() == BatchResult.Status.CREATED).count();
+        cache.batchWritten(written, deletedIds, created - deletedIds.size());
+        written.forEach(superhero -> indexes.forEach(index -> index.put(superhero)));
+        deletedIds.forEach(id -> indexes.forEach(index -> index.remove(id)));
+    }
 }
@@ -0,0 +1,99 @@
+package com.example.superheroes.integration;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = SuperheroesApplication.class)
+@ActiveProfiles("reactive")
+public class ReactiveSuperheroIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private SuperheroRepository repository;
+
+    private Long spidermanId;
+
+    @BeforeEach
+    public void setUp() {
+        spidermanId = repository.save(new Superhero(null, "Spiderman")).getId();
+        repository.save(new Superhero(null, "Superman"));
+        repository.save(new Superhero(null, "Manolito el fuerte"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void givenSuperheroesWithNoUser_whenFindAllSuperheroes_thenStatus401() {
+        webTestClient.get().uri("/superhero")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void givenSuperheroes_whenFindAllSuperheroesByName_thenStatus200() {
+        webTestClient.get().uri("/superhero?name=SUPER&sort=name,asc")
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").value(CoreMatchers.is(1))
+                .jsonPath("$.content[0].name").value(CoreMatchers.is("Superman"));
+    }
+
+    @Test
+    public void givenSuperheroes_whenFindSuperheroById_thenStatus200() {
+        webTestClient.get().uri("/superhero/" + spidermanId)
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").value(CoreMatchers.is("Spiderman"));
+    }
+
+    @Test
+    public void givenSuperheroes_whenFindMissingSuperheroById_thenStatus400() {
+        webTestClient.get().uri("/superhero/-1")
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void givenNewSuperhero_whenCreateAndDeleteSuperhero_thenStatus200() {
+        Superhero created = webTestClient.post().uri("/superhero")
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":-1,\"name\":\"Batman\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Superhero.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.delete().uri("/superhero/" + created.getId())
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/superhero/" + created.getId())
+                .headers(headers -> headers.setBasicAuth("admin", "admin"))
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.superheroes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * Configuration class for the reactive profile, which serves the superhero API with WebFlux and R2DBC.
+ * The schema is still created by JPA, and both stacks read the same H2 database through their own connections.
+ * Spring Boot backs off its DataSource when R2DBC is on the classpath, so the JDBC one, behind JPA, the caches and the indexes, is defined here.
+ * Its sources and dependencies are only built by the reactive Maven profile, so the default artifact doesn't ship them.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Configure Netty as the web server. Tomcat is still on the classpath of the reactive build, for the servlet stack, and would be picked first.
+     *
+     * @return The Netty web server factory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Configure the JDBC DataSource from the spring.datasource properties, the same Hikari pool the servlet stack gets.
+     *
+     * @param properties The spring.datasource properties.
+     * @return The JDBC DataSource.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Configure the client running the SQL of the reactive repository.
+     *
+     * @param connectionFactory The R2DBC connection pool.
+     * @return The database client.
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Configure the reactive authentication with the same provider as the servlet stack.
+     * The password checks block, so the adapter runs them on a bounded elastic scheduler instead of the event loop.
+     *
+     * @param authenticationProvider The provider authenticating the HTTP Basic credentials.
+     * @return The reactive authentication manager.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(CachingAuthenticationProvider authenticationProvider) {
+        return new ReactiveAuthenticationManagerAdapter(new ProviderManager(authenticationProvider));
+    }
+
+    /**
+     * Configure the security filter chain, requiring HTTP Basic authentication for every request like the servlet one.
+     *
+     * @param http                  The ServerHttpSecurity object to configure security settings.
+     * @param authenticationManager The reactive authentication manager.
+     * @return The configured security filter chain.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveAuthenticationManager authenticationManager) {
+        return http
+                .authorizeExchange(exchanges -> exchanges.anyExchange().authenticated())
+                .httpBasic(httpBasic -> httpBasic.authenticationManager(authenticationManager))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.superheroes.controller;
+
+import com.example.superheroes.dto.SuperheroDto;
+import com.example.superheroes.mapper.Mapper;
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.service.ReactiveSuperheroService;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Handles the functional routes of the reactive profile, mirroring the endpoints of {@link GenericCrudController}
+ * with the same parameters, mapping and error statuses as {@link ControllerExceptionAdviser}.
+ */
+@Component
+@Profile("reactive")
+@AllArgsConstructor
+public class SuperheroHandler {
+
+    private ReactiveSuperheroService service;
+
+    private Mapper<SuperheroDto, Superhero> mapper;
+
+    /**
+     * Retrieves a page of superheroes, optionally filtered by name, with the page, size and sort parameters.
+     *
+     * @param request The request.
+     * @return A page of DTO objects.
+     */
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        return handle(() -> {
+            PageRequest pageable = PageRequest.of(
+                    request.queryParam("page").map(Integer::parseInt).orElse(0),
+                    request.queryParam("size").map(Integer::parseInt).orElse(20),
+                    parseSort(request.queryParam("sort").orElse(null)));
+            return request.queryParam("name")
+                    .map(name -> service.findAllByName(name, pageable))
+                    .orElseGet(() -> service.findAll(pageable))
+                    .map(mapper::mapEntityPageToDtoPage)
+                    .flatMap(page -> ServerResponse.ok().bodyValue(page));
+        });
+    }
+
+    /**
+     * Retrieves a superhero by their unique ID.
+     *
+     * @param request The request, with the ID as path variable.
+     * @return A DTO object representing the superhero, or BAD_REQUEST if it does not exist.
+     */
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        return handle(() -> {
+            Long id = Long.valueOf(request.pathVariable("id"));
+            return service.findById(id)
+                    .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Can't find a entity if that id: " + id + " it does not exist")))
+                    .flatMap(superhero -> ServerResponse.ok().bodyValue(mapper.mapToDto(superhero)));
+        });
+    }
+
+    /**
+     * Creates a new superhero based on the DTO of the body.
+     *
+     * @param request The request.
+     * @return A DTO representing the created superhero, or NOT_FOUND if their ID already exists.
+     */
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return handle(() -> request.bodyToMono(SuperheroDto.class)
+                .flatMap(dto -> service.create(mapper.mapToEntity(dto)))
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Can't create entity if entity is not present")))
+                .flatMap(superhero -> ServerResponse.ok().bodyValue(mapper.mapToDto(superhero))));
+    }
+
+    /**
+     * Updates an existing superhero by their ID based on the DTO of the body.
+     *
+     * @param request The request, with the ID as path variable.
+     * @return A DTO representing the updated superhero, or NOT_FOUND if it does not exist.
+     */
+    public Mono<ServerResponse> update(ServerRequest request) {
+        return handle(() -> {
+            Long id = Long.valueOf(request.pathVariable("id"));
+            return request.bodyToMono(SuperheroDto.class)
+                    .flatMap(dto -> service.update(id, mapper.mapToEntity(dto)))
+                    .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Can't update entity if entity is not present")))
+                    .flatMap(superhero -> ServerResponse.ok().bodyValue(mapper.mapToDto(superhero)));
+        });
+    }
+
+    /**
+     * Deletes a superhero by their unique ID.
+     *
+     * @param request The request, with the ID as path variable.
+     * @return An empty OK response.
+     */
+    public Mono<ServerResponse> deleteById(ServerRequest request) {
+        return handle(() -> service.deleteById(Long.valueOf(request.pathVariable("id")))
+                .then(ServerResponse.ok().build()));
+    }
+
+    /**
+     * Answers the exceptions like {@link ControllerExceptionAdviser} does for the servlet stack,
+     * including the ones thrown while parsing the request.
+     */
+    private static Mono<ServerResponse> handle(Supplier<Mono<ServerResponse>> response) {
+        return Mono.defer(response)
+                .onErrorResume(NoSuchElementException.class,
+                        e -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(String.valueOf(e.getMessage())))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> ServerResponse.badRequest().bodyValue(String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * Parses a sort parameter in the format "property,direction", unsorted if missing or malformed.
+     */
+    private static Sort parseSort(String sortParam) {
+        if (sortParam != null) {
+            String[] parts = sortParam.split(",");
+            if (parts.length == 2) {
+                return Sort.by(Sort.Direction.fromString(parts[1]), parts[0]);
+            }
+        }
+        return Sort.unsorted();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.superheroes.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The functional routes of the superhero API for the reactive profile, at the same paths as {@link SuperheroController}.
+ */
+@Configuration
+@Profile("reactive")
+public class SuperheroRoutes {
+
+    /**
+     * Routes the superhero requests to the handler.
+     *
+     * @param handler The handler of the superhero requests.
+     * @return The routes of the superhero API.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> superheroRouter(SuperheroHandler handler) {
+        return RouterFunctions.route()
+                .path("/superhero", builder -> builder
+                        .GET("", handler::findAll)
+                        .GET("/{id}", handler::findById)
+                        .POST("", RequestPredicates.contentType(MediaType.APPLICATION_JSON), handler::create)
+                        .PATCH("/{id}", RequestPredicates.contentType(MediaType.APPLICATION_JSON), handler::update)
+                        .DELETE("/{id}", handler::deleteById))
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.superheroes.dao;
+
+import com.example.superheroes.model.Superhero;
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking access to the superhero table through R2DBC, the reactive equivalent of {@link SuperheroRepository}.
+ * It reads and writes the same table and id sequence as JPA, so both stacks share the dataset.
+ */
+@Repository
+@Profile("reactive")
+@AllArgsConstructor
+public class ReactiveSuperheroRepository {
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name");
+
+    private DatabaseClient client;
+
+    /**
+     * Retrieves the superhero with the given id.
+     *
+     * @param id The id of the superhero.
+     * @return The superhero, or empty if it doesn't exist.
+     */
+    public Mono<Superhero> findById(Long id) {
+        return client.sql("SELECT id, name, version FROM superhero WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveSuperheroRepository::toSuperhero)
+                .one();
+    }
+
+    /**
+     * Retrieves a page of superheroes.
+     *
+     * @param pageable The page, with a sort by id and/or name.
+     * @return The superheroes of the page.
+     */
+    public Flux<Superhero> findAll(Pageable pageable) {
+        return client.sql("SELECT id, name, version FROM superhero" + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveSuperheroRepository::toSuperhero)
+                .all();
+    }
+
+    /**
+     * Retrieves a page of the superheroes whose name contains the given one, ignoring case.
+     *
+     * @param name     The text contained in the names.
+     * @param pageable The page, with a sort by id and/or name.
+     * @return The superheroes of the page.
+     */
+    public Flux<Superhero> findByNameContainingIgnoreCase(String name, Pageable pageable) {
+        return client.sql("SELECT id, name, version FROM superhero WHERE LOWER(name) LIKE :pattern ESCAPE '\\'"
+                        + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset")
+                .bind("pattern", containing(name))
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveSuperheroRepository::toSuperhero)
+                .all();
+    }
+
+    /**
+     * Counts every superhero.
+     *
+     * @return The number of superheroes.
+     */
+    public Mono<Long> count() {
+        return client.sql("SELECT COUNT(*) FROM superhero")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Counts the superheroes whose name contains the given one, ignoring case.
+     *
+     * @param name The text contained in the names.
+     * @return The number of matching superheroes.
+     */
+    public Mono<Long> countByNameContainingIgnoreCase(String name) {
+        return client.sql("SELECT COUNT(*) FROM superhero WHERE LOWER(name) LIKE :pattern ESCAPE '\\'")
+                .bind("pattern", containing(name))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Inserts a superhero with the next id of the sequence shared with JPA.
+     *
+     * @param name The name of the superhero.
+     * @return The inserted superhero.
+     */
+    public Mono<Superhero> insert(String name) {
+        return client.sql("SELECT NEXT VALUE FOR " + SuperheroIdGenerator.SEQUENCE)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> client.sql("INSERT INTO superhero (id, name, version) VALUES (:id, :name, 0)")
+                        .bind("id", id)
+                        .bind("name", name)
+                        .then()
+                        .thenReturn(new Superhero(id, name)));
+    }
+
+    /**
+     * Updates the superhero identified by the given id.
+     *
+     * @param id        The id of the stored superhero.
+     * @param superhero The updated superhero, whose id replaces the stored one.
+     * @return The number of updated rows, 0 if the superhero doesn't exist.
+     */
+    public Mono<Integer> update(Long id, Superhero superhero) {
+        return client.sql("UPDATE superhero SET id = :newId, name = :name, version = version + 1 WHERE id = :id")
+                .bind("newId", superhero.getId())
+                .bind("name", superhero.getName())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Deletes the superhero with the given id.
+     *
+     * @param id The id of the superhero.
+     * @return The number of deleted rows, 0 if the superhero doesn't exist.
+     */
+    public Mono<Integer> deleteById(Long id) {
+        return client.sql("DELETE FROM superhero WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Superhero toSuperhero(Row row) {
+        return new Superhero(row.get("id", Long.class), row.get("name", String.class), row.get("version", Long.class));
+    }
+
+    /**
+     * Builds the ORDER BY clause of the sort, by id when unsorted so the pages are stable.
+     * Only known properties are accepted, since they are written into the SQL.
+     */
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY id";
+        }
+        return sort.stream()
+                .map(order -> {
+                    if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                        throw new IllegalArgumentException("Can't sort by " + order.getProperty());
+                    }
+                    return order.getProperty() + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static String containing(String name) {
+        return "%" + name.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.superheroes.service;
+
+import com.example.superheroes.model.Superhero;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+/**
+ * The non-blocking counterpart of {@link SuperheroService}, used by the reactive profile.
+ */
+public interface ReactiveSuperheroService {
+
+    /**
+     * Creates a superhero unless their id already exists.
+     *
+     * @param superhero The superhero to create. The stored id is generated.
+     * @return The created superhero, or empty if the id already exists.
+     */
+    Mono<Superhero> create(Superhero superhero);
+
+    /**
+     * Updates an existing superhero identified by their unique identifier (ID).
+     *
+     * @param id        The unique identifier of the superhero to update.
+     * @param superhero The superhero object containing the updated information.
+     * @return The updated superhero, or empty if the superhero doesn't exist.
+     */
+    Mono<Superhero> update(Long id, Superhero superhero);
+
+    /**
+     * Deletes a superhero by their unique identifier (ID).
+     *
+     * @param id The unique identifier of the superhero to delete.
+     * @return Completes once deleted, or fails with EmptyResultDataAccessException if the superhero doesn't exist.
+     */
+    Mono<Void> deleteById(Long id);
+
+    /**
+     * Retrieves a superhero by their unique identifier (ID).
+     *
+     * @param id The unique identifier of the superhero to retrieve.
+     * @return The superhero, or empty if not found.
+     */
+    Mono<Superhero> findById(Long id);
+
+    /**
+     * Retrieves a page of superheroes based on the provided pagination settings.
+     *
+     * @param pageable The pagination settings.
+     * @return A page of superheroes.
+     */
+    Mono<Page<Superhero>> findAll(Pageable pageable);
+
+    /**
+     * Retrieves a page of the superheroes whose name contains the given one, ignoring case.
+     *
+     * @param name     The name used to filter superheroes.
+     * @param pageable The pagination settings.
+     * @return A page of superheroes with the given name.
+     */
+    Mono<Page<Superhero>> findAllByName(String name, Pageable pageable);
+}
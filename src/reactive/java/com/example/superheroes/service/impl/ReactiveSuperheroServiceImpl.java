@@ -0,0 +1,125 @@
+package com.example.superheroes.service.impl;
+
+import com.example.superheroes.dao.ReactiveSuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.service.ReactiveSuperheroService;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Implementation of the ReactiveSuperheroService interface, active with the reactive profile.
+ * It follows the rules of {@link SuperheroServiceImpl} but reads straight from the database, without the caches
+ * and in-memory indexes of the servlet stack, which are only kept coherent by their own writes.
+ */
+@Service
+@Profile("reactive")
+@AllArgsConstructor
+public class ReactiveSuperheroServiceImpl implements ReactiveSuperheroService {
+
+    private ReactiveSuperheroRepository repository;
+
+    /**
+     * Create a superhero, unless their id already exists.
+     *
+     * @param superhero The superhero to create.
+     * @return The created superhero, or empty if it already exists.
+     */
+    @Override
+    public Mono<Superhero> create(Superhero superhero) {
+        return Mono.justOrEmpty(superhero.getId())
+                .flatMap(repository::findById)
+                .hasElement()
+                .flatMap(exists -> exists ? Mono.empty() : repository.insert(superhero.getName()));
+    }
+
+    /**
+     * Update a superhero by ID.
+     *
+     * @param id        The ID of the superhero to update.
+     * @param superhero The updated superhero information, whose ID replaces the stored one if present.
+     * @return The updated superhero, or empty if the superhero doesn't exist.
+     */
+    @Override
+    public Mono<Superhero> update(Long id, Superhero superhero) {
+        Superhero updated = new Superhero(superhero.getId() != null ? superhero.getId() : id, superhero.getName());
+        return repository.update(id, updated)
+                .filter(rows -> rows > 0)
+                .map(rows -> updated);
+    }
+
+    /**
+     * Delete a superhero by ID.
+     *
+     * @param id The ID of the superhero to delete.
+     * @return Completes once deleted, or fails with EmptyResultDataAccessException if the superhero doesn't exist.
+     */
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return repository.deleteById(id)
+                .filter(rows -> rows > 0)
+                .switchIfEmpty(Mono.error(() -> new EmptyResultDataAccessException(
+                        String.format("No %s entity with id %s exists!", Superhero.class, id), 1)))
+                .then();
+    }
+
+    /**
+     * Find a superhero by ID.
+     *
+     * @param id The ID of the superhero to find.
+     * @return The superhero, or empty if not found.
+     */
+    @Override
+    public Mono<Superhero> findById(Long id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Find all superheroes.
+     *
+     * @param pageable The Pageable object for pagination.
+     * @return A Page containing superheroes.
+     */
+    @Override
+    public Mono<Page<Superhero>> findAll(Pageable pageable) {
+        return page(repository.findAll(pageable), pageable, repository.count());
+    }
+
+    /**
+     * Find superheroes whose name contains the given one, ignoring case.
+     *
+     * @param name     The name to search for.
+     * @param pageable The Pageable object for pagination.
+     * @return A Page containing matching superheroes.
+     */
+    @Override
+    public Mono<Page<Superhero>> findAllByName(String name, Pageable pageable) {
+        return page(repository.findByNameContainingIgnoreCase(name, pageable), pageable,
+                repository.countByNameContainingIgnoreCase(name));
+    }
+
+    /**
+     * Builds the page once its content is read, and only subscribes to the count when the content can't tell the total,
+     * like PageableExecutionUtils does for the servlet stack.
+     */
+    private static Mono<Page<Superhero>> page(Flux<Superhero> content, Pageable pageable, Mono<Long> count) {
+        return content.collectList().flatMap(superheroes -> {
+            if (isLastPage(superheroes, pageable)) {
+                return Mono.<Page<Superhero>>just(new PageImpl<>(superheroes, pageable, pageable.getOffset() + superheroes.size()));
+            }
+            return count.<Page<Superhero>>map(total -> new PageImpl<>(superheroes, pageable, total));
+        });
+    }
+
+    private static boolean isLastPage(List<Superhero> superheroes, Pageable pageable) {
+        return superheroes.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !superheroes.isEmpty());
+    }
+}
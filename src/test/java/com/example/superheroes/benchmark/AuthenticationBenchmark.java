@@ -0,0 +1,50 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.config.CachingAuthenticationProvider;
+import com.example.superheroes.config.NotifyingUserDetailsManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Compares the cost of authenticating an HTTP Basic request with and without the verified-credential cache,
+ * using the same BCrypt encoded users as SecurityConfig.
+ * It is not a test: run it with
+ * {@code java -cp <test classpath> com.example.superheroes.benchmark.AuthenticationBenchmark 200 1000000}
+ */
+public class AuthenticationBenchmark {
+
+    public static void main(String[] args) {
+        int uncachedRequests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int cachedRequests = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        NotifyingUserDetailsManager users = new NotifyingUserDetailsManager(
+                User.withUsername("admin").password(passwordEncoder.encode("admin")).roles("USER", "ADMIN").build());
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(users);
+        dao.setPasswordEncoder(passwordEncoder);
+        CachingAuthenticationProvider cached = new CachingAuthenticationProvider(dao, Duration.ofMinutes(1), 10_000);
+
+        // One pass of each to warm up, then the measured pass
+        run(dao, uncachedRequests / 10 + 1);
+        run(cached, cachedRequests / 10 + 1);
+        long uncachedNanos = run(dao, uncachedRequests);
+        long cachedNanos = run(cached, cachedRequests);
+        System.out.printf("BCrypt on every request: %,10.1f us/request%n", uncachedNanos / 1e3 / uncachedRequests);
+        System.out.printf("Verified-credential cache: %,8.3f us/request%n", cachedNanos / 1e3 / cachedRequests);
+    }
+
+    private static long run(AuthenticationProvider provider, int requests) {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.dao.SuperheroJdbcDao;
+import com.example.superheroes.export.SuperheroExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Measures the throughput of the streaming export and the heap it needs, writing to a stream that discards the bytes.
+ * It is not a test: run it with
+ * {@code java -Xmx256m -cp <test classpath> com.example.superheroes.benchmark.ExportBenchmark 1000000 10000000}
+ * A heap much smaller than the exported data shows the export doesn't depend on the size of the table.
+ */
+public class ExportBenchmark {
+
+    public static void main(String[] args) throws SQLException, IOException {
+        long[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToLong(Long::parseLong).toArray()
+                : new long[]{10_000_000};
+        for (long size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(long size) throws SQLException, IOException {
+        // The H2 database is file based, so the seeded rows don't live in the heap being measured
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:./target/export-benchmark-" + size + ";MAX_MEMORY_ROWS=10000", "sa", "", true);
+        try {
+            seed(dataSource.getConnection(), size);
+            SuperheroExporter exporter = new SuperheroExporter(new SuperheroJdbcDao(new JdbcTemplate(dataSource)), new ObjectMapper());
+            for (SuperheroExporter.Format format : SuperheroExporter.Format.values()) {
+                // One pass to warm up, then the measured pass
+                exporter.export(format, new CountingOutputStream());
+                CountingOutputStream out = new CountingOutputStream();
+                System.gc();
+                long start = System.nanoTime();
+                long rows = exporter.export(format, out);
+                long nanos = System.nanoTime() - start;
+                Runtime runtime = Runtime.getRuntime();
+                System.out.printf("%,12d rows | %-6s | %,10d rows/s | %,8.1f MB/s | heap used %,d MB of %,d MB%n",
+                        rows, format, rows * 1_000_000_000L / nanos, out.count / 1e6 / (nanos / 1e9),
+                        (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20);
+            }
+        } finally {
+            try (Statement statement = dataSource.getConnection().createStatement()) {
+                statement.execute("DROP ALL OBJECTS DELETE FILES");
+            }
+            dataSource.destroy();
+        }
+    }
+
+    private static void seed(Connection connection, long size) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS superhero");
+            statement.execute("CREATE TABLE superhero (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO superhero (id, name) VALUES (?, ?)")) {
+            for (long id = 1; id <= size; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, generator.next());
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the throughput of JPA inserts of new superheroes with different allocation sizes of the id generator.
+ * An allocation size of 1 calls the sequence before every insert, like GenerationType.AUTO did,
+ * while larger ones only call it once per block of ids.
+ * Each run starts the application on its own H2 database and persists the superheroes
+ * in transactions of one batch chunk, as the batch endpoints do.
+ * It is not a test: run it with
+ * {@code java -cp <test classpath> com.example.superheroes.benchmark.IdGenerationBenchmark 1000000 1 50 500}
+ */
+public class IdGenerationBenchmark {
+
+    private static final int CHUNK_SIZE = 500;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] allocationSizes = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 50};
+        for (int allocationSize : allocationSizes) {
+            run(size, allocationSize);
+        }
+    }
+
+    private static void run(int size, int allocationSize) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SuperheroesApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:ids" + allocationSize,
+                        "superheroes.id.allocation-size=" + allocationSize,
+                        "superheroes.search.index.enabled=false",
+                        "superheroes.suggest.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            SuperheroRepository repository = context.getBean(SuperheroRepository.class);
+            TransactionTemplate transaction = context.getBean(TransactionTemplate.class);
+            SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+            // Warms up the JIT and the connection pool
+            insert(repository, transaction, generator, 50_000);
+            long start = System.nanoTime();
+            insert(repository, transaction, generator, size);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%,10d inserts | allocation size %4d | %,8d ms | %,10d inserts/s%n",
+                    size, allocationSize, nanos / 1_000_000, (long) (size / (nanos / 1e9)));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void insert(SuperheroRepository repository, TransactionTemplate transaction,
+                               SuperheroNameGenerator generator, int size) {
+        for (int offset = 0; offset < size; offset += CHUNK_SIZE) {
+            List<Superhero> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = offset; i < Math.min(size, offset + CHUNK_SIZE); i++) {
+                chunk.add(new Superhero(null, generator.next()));
+            }
+            transaction.executeWithoutResult(status -> repository.saveAll(chunk));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.dao.SuperheroIdGenerator;
+import com.example.superheroes.search.SuperheroIndexLoader;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end HTTP load test of the /superhero endpoints with a realistic mix of requests.
+ * It starts the application on a random port with its own H2 database, seeds it with generated superheroes,
+ * warms the JVM up and then drives it from several threads with HTTP Basic authentication,
+ * reporting the throughput and the p50/p99/p999 latency of each kind of request.
+ * It is not a test: run it with {@code mvn -Pload-test test-compile exec:java -Dload.args="--size=100000 --threads=16"}
+ * Options, with their defaults:
+ * <ul>
+ *     <li>--size=100000: superheroes seeded in the database.</li>
+ *     <li>--threads=16: concurrent clients.</li>
+ *     <li>--warmup=10 and --duration=30: seconds of warm-up and of measurement.</li>
+ *     <li>--mix=90,8,2: percentages of findById, name search and writes. Writes are half creations, half updates.</li>
+ *     <li>--cache=warm: warm keeps the caches filled by the warm-up, cold clears them before the measurement.</li>
+ *     <li>--user=admin and --password=admin: the HTTP Basic credentials.</li>
+ * </ul>
+ * Any application property can be passed as well, like --superheroes.web.virtual-threads=true to compare the execution modes,
+ * or --superheroes.service.implementation=jdbc to compare the JDBC lookups with the JPA ones.
+ * The startup time and the resident set size after startup and after the measurement are reported too, on Linux.
+ */
+public class LoadTest {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private enum Operation {
+        FIND_BY_ID, SEARCH, CREATE, UPDATE
+    }
+
+    private final String[] args;
+    private final Map<String, String> options;
+    private final int size;
+    private final int threads;
+    private final int[] mix;
+    private final AtomicLong unusedIds = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String authorization;
+    private String baseUrl;
+
+    private LoadTest(String[] args, Map<String, String> options) {
+        this.args = args;
+        this.options = options;
+        this.size = Integer.parseInt(options.getOrDefault("size", "100000"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        String[] percentages = options.getOrDefault("mix", "90,8,2").split(",");
+        this.mix = new int[]{Integer.parseInt(percentages[0]), Integer.parseInt(percentages[1]), Integer.parseInt(percentages[2])};
+        String credentials = options.getOrDefault("user", "admin") + ":" + options.getOrDefault("password", "admin");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        new LoadTest(args, options).run();
+    }
+
+    private void run() throws Exception {
+        long startupStart = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SuperheroesApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-test",
+                        "logging.level.root=WARN")
+                .run(args);
+        System.out.printf("Started in %d ms, RSS %s%n", (System.nanoTime() - startupStart) / 1_000_000, residentSetSize());
+        try {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/superhero";
+            long seedStart = System.nanoTime();
+            seed(context.getBean(JdbcTemplate.class));
+            context.getBean(SuperheroIndexLoader.class).afterSingletonsInstantiated();
+            System.out.printf("%,d superheroes seeded in %d ms%n", size, (System.nanoTime() - seedStart) / 1_000_000);
+
+            drive(Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))));
+            boolean cold = "cold".equals(options.getOrDefault("cache", "warm"));
+            if (cold) {
+                CacheManager cacheManager = context.getBean(CacheManager.class);
+                cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+            }
+            Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+            Map<Operation, Histogram> latencies = drive(duration);
+            report(latencies, duration, cold);
+            System.out.printf("RSS after the measurement %s%n", residentSetSize());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Reads the resident set size of this process from /proc, which only exists on Linux.
+     */
+    private static String residentSetSize() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "unavailable";
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("unavailable");
+    }
+
+    /**
+     * Seeds the database directly, ids 1 to size, so the superheroes are not in the caches yet.
+     * The in-memory search indexes were loaded at startup from the empty database, so they are reloaded afterwards.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            batch.add(new Object[]{id, generator.next()});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+        // Generated ids must not collide with the seeded ones
+        jdbcTemplate.execute("ALTER SEQUENCE " + SuperheroIdGenerator.SEQUENCE + " RESTART WITH " + (size + 1));
+    }
+
+    /**
+     * Sends requests from every thread until the duration elapses.
+     *
+     * @return The latencies of each operation, in microseconds.
+     */
+    private Map<Operation, Histogram> drive(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<Operation, Histogram>>> clients = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                clients.add(executor.submit(() -> client(deadline)));
+            }
+            Map<Operation, Histogram> latencies = histograms();
+            for (Future<Map<Operation, Histogram>> clientLatencies : clients) {
+                clientLatencies.get().forEach((operation, histogram) -> latencies.get(operation).add(histogram));
+            }
+            return latencies;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, Histogram> client(long deadline) throws IOException, InterruptedException {
+        Map<Operation, Histogram> latencies = histograms();
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(Thread.currentThread().getId());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = nextOperation(random.nextInt(100));
+            HttpRequest request = request(operation, random, generator);
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException(operation + " failed with status " + response.statusCode());
+            }
+            latencies.get(operation).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        }
+        return latencies;
+    }
+
+    private Operation nextOperation(int percentile) {
+        if (percentile < mix[0]) {
+            return Operation.FIND_BY_ID;
+        }
+        if (percentile < mix[0] + mix[1]) {
+            return Operation.SEARCH;
+        }
+        return percentile % 2 == 0 ? Operation.CREATE : Operation.UPDATE;
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random, SuperheroNameGenerator generator) {
+        long id = 1 + random.nextInt(size);
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case FIND_BY_ID:
+                builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET();
+                break;
+            case SEARCH:
+                String term = URLEncoder.encode(generator.nextSearchTerm(), StandardCharsets.UTF_8);
+                builder = HttpRequest.newBuilder(URI.create(baseUrl + "?name=" + term)).GET();
+                break;
+            case CREATE:
+                // Creations need an id that doesn't exist yet, the stored one is generated
+                builder = HttpRequest.newBuilder(URI.create(baseUrl))
+                        .POST(json(unusedIds.decrementAndGet(), generator.next()));
+                break;
+            default:
+                builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                        .method("PATCH", json(id, generator.next()));
+                break;
+        }
+        return builder.header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private static HttpRequest.BodyPublisher json(long id, String name) {
+        return HttpRequest.BodyPublishers.ofString("{\"id\":" + id + ",\"name\":\"" + name + "\"}");
+    }
+
+    private void report(Map<Operation, Histogram> latencies, Duration duration, boolean cold) {
+        System.out.printf("%,d superheroes | %d threads | mix %d/%d/%d | %s cache | %d s%n",
+                size, threads, mix[0], mix[1], mix[2], cold ? "cold" : "warm", duration.getSeconds());
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        latencies.forEach((operation, histogram) -> {
+            total.add(histogram);
+            print(operation.name(), histogram, duration);
+        });
+        print("ALL", total, duration);
+    }
+
+    private static void print(String name, Histogram histogram, Duration duration) {
+        System.out.printf("%-10s %,10d requests | %,9.1f req/s | p50 %,8d us | p99 %,8d us | p999 %,8d us%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / (double) duration.getSeconds(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9));
+    }
+
+    private static Map<Operation, Histogram> histograms() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new Histogram(MAX_LATENCY_MICROS, 3));
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.TrigramNameIndex;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the name search through the trigram index with the LIKE query generated for
+ * SuperheroRepository.findAllByNameContainingIgnoreCase, including the count query of the page.
+ * It is not a test: run it with
+ * {@code java -Xmx8g -cp <test classpath> com.example.superheroes.benchmark.NameSearchBenchmark 10000 1000000 10000000}
+ */
+public class NameSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int QUERIES = 200;
+
+    public static void main(String[] args) throws SQLException {
+        long[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToLong(Long::parseLong).toArray()
+                : new long[]{10_000, 1_000_000, 10_000_000};
+        for (long size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(long size) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:search" + size, "sa", "")) {
+            TrigramNameIndex index = new TrigramNameIndex();
+            long loadStart = System.nanoTime();
+            seed(connection, index, size);
+            System.out.printf("%,d rows seeded and indexed in %d ms%n", size, (System.nanoTime() - loadStart) / 1_000_000);
+
+            String[] terms = new String[QUERIES];
+            SuperheroNameGenerator generator = new SuperheroNameGenerator(7);
+            for (int i = 0; i < QUERIES; i++) {
+                terms[i] = generator.nextSearchTerm();
+            }
+
+            // One pass of each to warm up, then the measured pass
+            likeQuery(connection, terms);
+            indexQuery(connection, index, terms);
+            long likeNanos = likeQuery(connection, terms);
+            long indexNanos = indexQuery(connection, index, terms);
+            System.out.printf("%,12d rows | LIKE + count: %,10d us/query | trigram index: %,8d us/query%n",
+                    size, likeNanos / QUERIES / 1_000, indexNanos / QUERIES / 1_000);
+        }
+    }
+
+    private static void seed(Connection connection, TrigramNameIndex index, long size) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE superhero (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        }
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO superhero (id, name) VALUES (?, ?)")) {
+            for (long id = 1; id <= size; id++) {
+                String name = generator.next();
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.addBatch();
+                index.put(new Superhero(id, name));
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static long likeQuery(Connection connection, String[] terms) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement page = connection.prepareStatement(
+                "SELECT id, name FROM superhero WHERE UPPER(name) LIKE UPPER(?) ESCAPE '\\' LIMIT ? OFFSET 0");
+             PreparedStatement count = connection.prepareStatement(
+                     "SELECT COUNT(id) FROM superhero WHERE UPPER(name) LIKE UPPER(?) ESCAPE '\\'")) {
+            for (String term : terms) {
+                page.setString(1, "%" + term + "%");
+                page.setInt(2, PAGE_SIZE);
+                consume(page);
+                count.setString(1, "%" + term + "%");
+                consume(count);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long indexQuery(Connection connection, TrigramNameIndex index, String[] terms) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            for (String term : terms) {
+                long[] ids = index.search(term);
+                if (ids.length > 0) {
+                    String pageIds = Arrays.stream(ids).limit(PAGE_SIZE).mapToObj(Long::toString).collect(Collectors.joining(","));
+                    try (ResultSet resultSet = statement.executeQuery("SELECT id, name FROM superhero WHERE id IN (" + pageIds + ")")) {
+                        while (resultSet.next()) {
+                            resultSet.getString(2);
+                        }
+                    }
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void consume(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getObject(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.dao.SuperheroIdGenerator;
+import com.example.superheroes.dao.SuperheroRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the heap allocated and the time spent per read of the service read path, a page of superheroes
+ * and a lookup by id straight from the repository, bypassing the caches, in a read-write and in a read-only transaction.
+ * Read-write transactions keep a dirty-checking snapshot of every loaded superhero and flush the session at commit,
+ * read-only ones don't.
+ * It is not a test: run it with
+ * {@code java -cp <test classpath> com.example.superheroes.benchmark.ReadPathAllocationBenchmark 100000 100}
+ */
+public class ReadPathAllocationBenchmark {
+
+    private static final int ITERATIONS = 20_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SuperheroesApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:read-path",
+                        "superheroes.search.index.enabled=false",
+                        "superheroes.suggest.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            seed(context.getBean(JdbcTemplate.class), size);
+            SuperheroRepository repository = context.getBean(SuperheroRepository.class);
+            PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            // One pass of each to warm up, then the measured pass
+            for (boolean measure : new boolean[]{false, true}) {
+                run("read-write", readWrite, repository, size, pageSize, measure);
+                run("read-only", readOnly, repository, size, pageSize, measure);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(String mode, TransactionTemplate transaction, SuperheroRepository repository,
+                            int size, int pageSize, boolean measure) {
+        SplittableRandom random = new SplittableRandom(7);
+        int pages = Math.max(1, size / pageSize);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            transaction.executeWithoutResult(status -> {
+                repository.findAllBy(PageRequest.of(random.nextInt(pages), pageSize)).getContent();
+                repository.findById(1 + random.nextLong(size));
+            });
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        if (measure) {
+            System.out.printf("%-10s | page of %,5d + findById | %,10d bytes/read | %,8d us/read%n",
+                    mode, pageSize, allocated / ITERATIONS, nanos / ITERATIONS / 1_000);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int size) {
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            batch.add(new Object[]{id, generator.next()});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO superhero (id, name, version) VALUES (?, ?, 0)", batch);
+        jdbcTemplate.execute("ALTER SEQUENCE " + SuperheroIdGenerator.SEQUENCE + " RESTART WITH " + (size + 1));
+    }
+}
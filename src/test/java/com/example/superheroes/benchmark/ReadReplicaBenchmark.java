@@ -0,0 +1,102 @@
+package com.example.superheroes.benchmark;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.SuperheroReadReplica;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Compares the memory footprint and the GC cost of keeping every superhero in memory as entities in a Caffeine cache,
+ * like the by-id cache does, with the read replica on the heap and off the heap.
+ * Each store is filled alone, then measured after a full GC and while serving random reads by id.
+ * It is not a test: run it with
+ * {@code java -Xmx8g -XX:MaxDirectMemorySize=4g -cp <test classpath> com.example.superheroes.benchmark.ReadReplicaBenchmark 1000000 10000000}
+ */
+public class ReadReplicaBenchmark {
+
+    private static final int READS = 20_000_000;
+
+    public static void main(String[] args) {
+        long[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToLong(Long::parseLong).toArray()
+                : new long[]{1_000_000, 10_000_000};
+        for (long size : sizes) {
+            run("caffeine entities", size, ReadReplicaBenchmark::caffeine);
+            run("replica on heap", size, s -> replica(s, false));
+            run("replica off heap", size, s -> replica(s, true));
+        }
+    }
+
+    private static void run(String store, long size, LongFunction<LongFunction<Superhero>> fill) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        long loadStart = System.nanoTime();
+        LongFunction<Superhero> reads = fill.apply(size);
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        SplittableRandom random = new SplittableRandom(7);
+        long readStart = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < READS; i++) {
+            checksum += reads.apply(1 + random.nextLong(size)).getName().length();
+        }
+        long readNanos = System.nanoTime() - readStart;
+        System.out.printf("%,12d rows | %-17s | load %,6d ms | heap %,6d MB | off heap %,6d MB | %4d ns/read "
+                        + "| %3d GCs, %,6d ms during reads (%d)%n",
+                size, store, loadMillis, heap >> 20, direct >> 20, readNanos / READS,
+                gcCount() - gcCount, gcMillis() - gcMillis, checksum);
+        // Keep the store reachable until it's measured
+        reads.apply(1);
+    }
+
+    private static LongFunction<Superhero> caffeine(long size) {
+        Cache<Long, Superhero> cache = Caffeine.newBuilder().initialCapacity((int) size).build();
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        for (long id = 1; id <= size; id++) {
+            cache.put(id, new Superhero(id, generator.next()));
+        }
+        return cache::getIfPresent;
+    }
+
+    private static LongFunction<Superhero> replica(long size, boolean offHeap) {
+        SuperheroReadReplica replica = new SuperheroReadReplica(offHeap);
+        SuperheroNameGenerator generator = new SuperheroNameGenerator(42);
+        for (long id = 1; id <= size; id++) {
+            replica.put(new Superhero(id, generator.next()));
+        }
+        System.out.printf("%,12d rows | replica allocates %,d MB%n", size, replica.allocatedBytes() >> 20);
+        return id -> replica.findById(id).orElseThrow();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        List<BufferPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        return pools.stream().filter(pool -> "direct".equals(pool.getName())).mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
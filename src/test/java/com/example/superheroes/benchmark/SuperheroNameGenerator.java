@@ -0,0 +1,54 @@
+package com.example.superheroes.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic but realistic superhero names, deterministic for a given seed.
+ */
+public class SuperheroNameGenerator {
+
+    private static final String[] PREFIXES = {
+            "Super", "Spider", "Iron", "Bat", "Aqua", "Wonder", "Captain", "Doctor", "Black", "Silver",
+            "Green", "Night", "Star", "Shadow", "Thunder", "Storm", "Ant", "Hawk", "Cyber", "Mega"
+    };
+
+    private static final String[] SUFFIXES = {
+            "man", "woman", "girl", "boy", " Lantern", " Knight", " Widow", "hawk", " Falcon", " Phantom",
+            " Arrow", " Fury", " Bolt", " Blade", "wing", " Surfer", " Marvel", " Strange", "ranger", " Hulk"
+    };
+
+    private static final String[] EPITHETS = {
+            "", "", "", " el fuerte", " the Great", " Prime", " Junior", " II", " of Mars", " the Swift"
+    };
+
+    private final Random random;
+
+    public SuperheroNameGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the next name. Names repeat with a numeric suffix, like real rosters with many variants.
+     *
+     * @return A superhero name.
+     */
+    public String next() {
+        String name = PREFIXES[random.nextInt(PREFIXES.length)]
+                + SUFFIXES[random.nextInt(SUFFIXES.length)]
+                + EPITHETS[random.nextInt(EPITHETS.length)];
+        return random.nextInt(4) == 0 ? name : name + " " + random.nextInt(100_000);
+    }
+
+    /**
+     * Generates a search term: a fragment of a generated name, in random case.
+     *
+     * @return A search term.
+     */
+    public String nextSearchTerm() {
+        String name = next();
+        int length = 3 + random.nextInt(5);
+        int from = random.nextInt(Math.max(1, name.length() - length));
+        String term = name.substring(from, Math.min(name.length(), from + length));
+        return random.nextBoolean() ? term.toLowerCase() : term.toUpperCase();
+    }
+}
@@ -5,11 +5,12 @@ import com.example.superheroes.dao.SuperheroRepository;
 
 import com.example.superheroes.model.Superhero;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.hamcrest.CoreMatchers;
-import org.junit.After;
-import org.junit.Before;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -17,13 +18,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
-import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
 
-@RunWith(SpringRunner.class)
+import java.util.List;
+
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.MOCK,
         classes = SuperheroesApplication.class)
@@ -32,24 +33,32 @@ import org.springframework.transaction.annotation.Transactional;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class SuperheroControllerIntegrationTest {
 
+    /**
+     * An id no superhero gets, generated ids start at 1.
+     */
+    private static final long NO_ID = -1;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private SuperheroRepository repository;
 
-    @Before
-    public void SetUp(){
-        Superhero superhero1 = new Superhero(1L, "Spiderman");
-        Superhero superhero2 = new Superhero(2L, "Superman");
-        Superhero superhero3 = new Superhero(3L, "Manolito el fuerte");
+    private Long spidermanId;
+    private Long supermanId;
+    private Long manolitoId;
 
-        repository.save(superhero1);
-        repository.save(superhero2);
-        repository.save(superhero3);
+    @BeforeEach
+    public void SetUp(){
+        //The ids are generated, whatever the saved superheroes hold
+        spidermanId = repository.save(new Superhero(null, "Spiderman")).getId();
+        supermanId = repository.save(new Superhero(null, "Superman")).getId();
+        manolitoId = repository.save(new Superhero(null, "Manolito el fuerte")).getId();
+        //Creations check the ids with plain SQL, which only sees flushed rows
+        repository.flush();
     }
 
-    @After
+    @AfterEach
     public void tearDown(){
         repository.deleteAll();
     }
@@ -73,9 +82,91 @@ public class SuperheroControllerIntegrationTest {
     }
     @Test
     @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllAsCompactPage_thenStatus200() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("size", "2")
+                        .accept("application/vnd.superheroes.page+json"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content()
+                        .contentTypeCompatibleWith("application/vnd.superheroes.page+json"))
+                .andExpect(MockMvcResultMatchers.header().string("Vary", CoreMatchers.containsString("Accept")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name", CoreMatchers.is("Superman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.pageable").doesNotExist());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllWithoutCount_thenStatus200() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("count", "false")
+                        .param("size", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name", CoreMatchers.is("Superman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last", CoreMatchers.is(false)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllAfterCursor_thenStatus200() throws Exception{
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "")
+                        .param("size", "2")
+                        .param("sort", "name,asc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Manolito el fuerte")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", JsonPath.<String>read(body, "$.next"))
+                        .param("size", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Superman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last", CoreMatchers.is(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").doesNotExist());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllAfterInvalidCursor_thenStatus400() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "not a cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllAfterInvalidSize_thenStatus400() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "")
+                        .param("size", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "")
+                        .param("size", "-1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        //Larger sizes than the maximum are capped, not rejected
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "")
+                        .param("size", String.valueOf(Integer.MAX_VALUE))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last", CoreMatchers.is(true)));
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
     public void givenSuperheroes_whenFindById_thenStatus200() throws Exception{
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}",1L)
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", spidermanId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.content()
@@ -83,8 +174,69 @@ public class SuperheroControllerIntegrationTest {
     }
     @Test
     @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroETag_whenFindByIdIfNoneMatch_thenStatus304() throws Exception{
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", spidermanId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", spidermanId)
+                        .header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenListingETag_whenFindAllIfNoneMatch_thenStatus304UntilAWrite() throws Exception{
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/superhero"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/superhero/{id}", supermanId))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .header("If-None-Match", eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.is(2)));
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenOutdatedIfMatch_whenUpdateSuperhero_thenStatus412() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", spidermanId)
+                        .header("If-Match", "\"7\"")
+                        .content("{\"id\":" + spidermanId + ",\"name\":\"Spider-Man\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenCursorAndIds_whenFindAll_thenStatus400() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("after", "")
+                        .param("ids", spidermanId + "," + supermanId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllById_thenStatus200InRequestOrder() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("ids", manolitoId + "," + spidermanId + "," + NO_ID + "," + supermanId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name", CoreMatchers.is("Manolito el fuerte")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].name", CoreMatchers.is("Superman")));
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
     public void givenSuperheroes_whenCreateSuperhero_thenStatus200() throws Exception{
-        Superhero superhero4 = new Superhero(4L, "Dr. Strange");
+        Superhero superhero4 = new Superhero(NO_ID, "Dr. Strange");
         String jsonString = new ObjectMapper().writeValueAsString(superhero4);
         mockMvc.perform(MockMvcRequestBuilders.post("/superhero")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -94,26 +246,111 @@ public class SuperheroControllerIntegrationTest {
                         .contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("Dr. Strange")));
     }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenNoId_whenCreateSuperhero_thenStatus200WithGeneratedId() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.post("/superhero")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Dr. Strange\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.notNullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("Dr. Strange")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenExistingId_whenCreateSuperhero_thenStatus404() throws Exception{
+        String jsonString = new ObjectMapper().writeValueAsString(new Superhero(spidermanId, "Dr. Strange"));
+        mockMvc.perform(MockMvcRequestBuilders.post("/superhero")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", spidermanId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("Spiderman")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenCreateSuperheroesBatch_thenStatus200() throws Exception{
+        String jsonString = new ObjectMapper().writeValueAsString(List.of(
+                new Superhero(spidermanId, "Spiderman"), new Superhero(null, "Dr. Strange")));
+        mockMvc.perform(MockMvcRequestBuilders.post("/superhero/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonString))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status", CoreMatchers.is("CONFLICT")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].item.name", CoreMatchers.is("Dr. Strange")));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenUpdateSuperheroesNdjsonBatch_thenStatus200() throws Exception{
+        String ndjson = "{\"id\":" + spidermanId + ",\"name\":\"WonderWoman\"}\n{\"id\":" + NO_ID + ",\"name\":\"Nobody\"}\n";
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].item.name", CoreMatchers.is("WonderWoman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status", CoreMatchers.is("NOT_FOUND")));
+    }
 
     @Test
     @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
     public void givenSuperhero_whenUpdateSuperhero_thenStatus200() throws Exception{
-        Superhero superhero1 = new Superhero(1L,"WonderWoman");
+        Superhero superhero1 = new Superhero(spidermanId,"WonderWoman");
         String jsonString = new ObjectMapper().writeValueAsString(superhero1);
-        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", 1L)
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", spidermanId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonString))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.content()
                         .contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(spidermanId.intValue())))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("WonderWoman")));
     }
 
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenNoIdInBody_whenUpdateSuperhero_thenPathIdIsRenamed() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", spidermanId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"WonderWoman\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(spidermanId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("WonderWoman")));
+
+        Assertions.assertEquals(3, repository.count());
+        Assertions.assertEquals("WonderWoman", repository.findById(spidermanId).orElseThrow().getName());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenOtherIdInBody_whenUpdateSuperhero_thenOnlyPathIdIsRenamed() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", spidermanId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + supermanId + ",\"name\":\"WonderWoman\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(spidermanId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("WonderWoman")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", supermanId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("Superman")));
+        //The version of the path id is checked, not the one of the body id
+        mockMvc.perform(MockMvcRequestBuilders.patch("/superhero/{id}", spidermanId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + supermanId + ",\"name\":\"Spider-Man\"}"))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
     @Test
     @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
     public void givenSuperhero_whenDeleteSuperhero_thenStatus200() throws Exception{
-        mockMvc.perform(MockMvcRequestBuilders.delete("/superhero/{id}", 1L)
+        mockMvc.perform(MockMvcRequestBuilders.delete("/superhero/{id}", spidermanId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
@@ -0,0 +1,107 @@
+package com.example.superheroes.integration;
+
+import com.example.superheroes.SuperheroesApplication;
+import com.example.superheroes.dao.SuperheroRepository;
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.service.SuperheroService;
+import com.example.superheroes.service.impl.SuperheroJdbcServiceImpl;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = SuperheroesApplication.class,
+        // Without the name index, name searches reach the database as well
+        properties = {"superheroes.service.implementation=jdbc", "superheroes.search.index.enabled=false"})
+@AutoConfigureMockMvc
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SuperheroJdbcServiceIntegrationTest {
+
+    /**
+     * An id no superhero gets, generated ids start at 1.
+     */
+    private static final long NO_ID = -1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SuperheroRepository repository;
+
+    @Autowired
+    private SuperheroService service;
+
+    private Long supermanId;
+
+    @BeforeEach
+    public void setUp(){
+        //The ids are generated, whatever the saved superheroes hold
+        repository.save(new Superhero(null, "Spiderman"));
+        supermanId = repository.save(new Superhero(null, "Superman")).getId();
+        repository.save(new Superhero(null, "Manolito el fuerte"));
+        //The JDBC reads only see flushed rows
+        repository.flush();
+    }
+
+    @AfterEach
+    public void tearDown(){
+        repository.deleteAll();
+    }
+    @Test
+    public void givenJdbcImplementation_thenItIsTheService() {
+        Assertions.assertTrue(service instanceof SuperheroJdbcServiceImpl);
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindById_thenStatus200() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", supermanId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.is("Superman")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero/{id}", NO_ID)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllSortedByName_thenStatus200() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("size", "2")
+                        .param("sort", "name,asc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Manolito el fuerte")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.is(3)));
+    }
+    @Test
+    @WithMockUser(username = "admin", password = "admin", roles = {"USER", "ADMIN"})
+    public void givenSuperheroes_whenFindAllByName_thenStatus200() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("name", "MAN")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("Spiderman")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.is(3)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/superhero")
+                        .param("name", "%")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.is(0)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.config.CachingAuthenticationProvider;
+import com.example.superheroes.config.NotifyingUserDetailsManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachingAuthenticationProviderTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private NotifyingUserDetailsManager users;
+
+    private PasswordEncoder passwordEncoder;
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        users = new NotifyingUserDetailsManager(
+                User.withUsername("admin").password(passwordEncoder.encode("admin")).roles("USER", "ADMIN").build());
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider();
+        dao.setUserDetailsService(users);
+        dao.setPasswordEncoder(passwordEncoder);
+        //Counts how many times the password hash is actually verified
+        AuthenticationProvider counting = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                verifications.incrementAndGet();
+                return dao.authenticate(authentication);
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return dao.supports(authentication);
+            }
+        };
+        provider = new CachingAuthenticationProvider(counting, Duration.ofMinutes(1), 100);
+        users.addListener(provider::invalidate);
+    }
+
+    @Test
+    public void givenVerifiedCredentials_whenAuthenticateAgain_thenPasswordIsNotVerifiedAgain() {
+        Authentication first = provider.authenticate(token("admin", "admin"));
+        Authentication second = provider.authenticate(token("admin", "admin"));
+
+        Assertions.assertTrue(second.isAuthenticated());
+        Assertions.assertEquals(first.getName(), second.getName());
+        Assertions.assertEquals(first.getAuthorities(), second.getAuthorities());
+        Assertions.assertEquals(1, verifications.get());
+    }
+
+    @Test
+    public void givenWrongPassword_whenAuthenticate_thenItIsVerifiedEveryTime() {
+        provider.authenticate(token("admin", "admin"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+        Assertions.assertEquals(3, verifications.get());
+    }
+
+    @Test
+    public void givenChangedUser_whenAuthenticate_thenOldCredentialsAreVerifiedAgain() {
+        provider.authenticate(token("admin", "admin"));
+
+        users.updateUser(User.withUsername("admin").password(passwordEncoder.encode("secret")).roles("USER").build());
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "admin")));
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void givenVerifiedCredentials_whenAuthenticateWithColonMoved_thenTheyAreVerified() {
+        users.createUser(User.withUsername("a").password(passwordEncoder.encode("b:c")).roles("USER").build());
+        provider.authenticate(token("a", "b:c"));
+
+        //Joined with a colon, both pairs would be the same credentials
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("a:b", "c")));
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.annotation.ExecutionTime;
+import com.example.superheroes.annotation.ExecutionTimeAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+
+public class ExecutionTimeAspectTest {
+
+    private SimpleMeterRegistry registry;
+
+    private Measured measured;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Measured());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ExecutionTimeAspect(registry, Duration.ofSeconds(1)));
+        measured = factory.getProxy();
+    }
+
+    @Test
+    public void givenMeasuredMethod_whenCalled_thenTimerIsTaggedByMethodAndOutcome() {
+        measured.succeed();
+        measured.succeed();
+        Assertions.assertThrows(IllegalStateException.class, () -> measured.fail());
+
+        Assertions.assertEquals(2, registry.get(ExecutionTimeAspect.TIMER_NAME)
+                .tags("method", "Measured.succeed", "outcome", "success", "cache", "none").timer().count());
+        Assertions.assertEquals(1, registry.get(ExecutionTimeAspect.TIMER_NAME)
+                .tags("method", "Measured.fail", "outcome", "error", "cache", "none").timer().count());
+    }
+
+    public static class Measured {
+
+        @ExecutionTime
+        public String succeed() {
+            return "ok";
+        }
+
+        @ExecutionTime
+        public String fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
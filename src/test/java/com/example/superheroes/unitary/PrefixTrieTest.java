@@ -0,0 +1,45 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.PrefixTrie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    public void setUp() {
+        trie = new PrefixTrie(3);
+        trie.put(new Superhero(1L, "Spiderman"));
+        trie.put(new Superhero(2L, "Superman"));
+        trie.put(new Superhero(3L, "Spider"));
+        trie.put(new Superhero(4L, "Spiderwoman"));
+    }
+
+    @Test
+    public void givenPrefix_whenSuggest_thenReturnTopKInNameOrderIgnoringCase() {
+        Assertions.assertEquals(List.of("Spider", "Spiderman", "Spiderwoman"), names(trie.suggest("SP", 10)));
+        Assertions.assertEquals(List.of("Spiderman"), names(trie.suggest("spiderm", 10)));
+        Assertions.assertEquals(List.of("Spider"), names(trie.suggest("sp", 1)));
+        Assertions.assertEquals(List.of(), names(trie.suggest("bat", 10)));
+    }
+
+    @Test
+    public void givenRenamedAndRemovedSuperheroes_whenSuggest_thenTrieIsUpdated() {
+        trie.remove(3L);
+        trie.put(new Superhero(1L, "Batman"));
+
+        Assertions.assertEquals(List.of("Spiderwoman", "Superman"), names(trie.suggest("s", 10)));
+        Assertions.assertEquals(List.of("Batman"), names(trie.suggest("b", 10)));
+    }
+
+    private static List<String> names(List<Superhero> superheroes) {
+        return superheroes.stream().map(Superhero::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.config.ReadOnlyRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class ReadOnlyRoutingDataSourceTest {
+
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final Connection replicaConnection = Mockito.mock(Connection.class);
+    private ReadOnlyRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        DataSource primary = Mockito.mock(DataSource.class);
+        DataSource replica = Mockito.mock(DataSource.class);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadOnlyRoutingDataSource(primary, replica);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void givenReadOnlyTransaction_whenGetConnection_thenRouteToReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void givenReadWriteOrNoTransaction_whenGetConnection_thenRouteToPrimary() throws SQLException {
+        Assertions.assertSame(primaryConnection, dataSource.getConnection());
+    }
+}
@@ -10,9 +10,16 @@ import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -52,10 +59,10 @@ public class SuperheroControllerTest {
         Mockito.when(mapper.mapEntityPageToDtoPage(superheroPage)).thenReturn(superheroDtoPage);
 
         // Call the method
-        ResponseEntity<Page<SuperheroDto>> result = controller.findAll(null, 0, 20, "name,asc");
+        ResponseEntity<Page<SuperheroDto>> result = controller.findAll(null, 0, 20, "name,asc", webRequest(null));
 
         // Verify the response
-        Assertions.assertEquals(ResponseEntity.ok(superheroDtoPage), result);
+        Assertions.assertEquals(ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(superheroDtoPage), result);
 
         // Verify the service methods and mapper are called
         Mockito.verify(service, Mockito.times(1)).findAll(Mockito.any());
@@ -74,7 +81,7 @@ public class SuperheroControllerTest {
         Mockito.when(mapper.mapToDto(superhero)).thenReturn(superheroDto);
 
         // Call the method
-        ResponseEntity<SuperheroDto> result = controller.findById(1L);
+        ResponseEntity<SuperheroDto> result = controller.findById(1L, webRequest(null));
 
         // Verify the response
         Assertions.assertEquals(ResponseEntity.ok(superheroDto), result);
@@ -84,6 +91,39 @@ public class SuperheroControllerTest {
         Mockito.verify(mapper, Mockito.times(1)).mapToDto(superhero);
     }
 
+    @Test
+    public void givenUnchangedSuperhero_whenFindByIdIfNoneMatch_thenStatus304() {
+        Superhero superhero = new Superhero(1L, "Spiderman", 3);
+        Mockito.when(service.findById(1L)).thenReturn(Optional.of(superhero));
+
+        ResponseEntity<SuperheroDto> result = controller.findById(1L, webRequest("\"3\""));
+
+        // The client already has this version, so nothing is mapped
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        Mockito.verify(mapper, Mockito.never()).mapToDto(Mockito.any());
+    }
+
+    @Test
+    public void givenUnchangedListing_whenFindAllIfNoneMatch_thenStatus304() {
+        Mockito.when(service.modificationStamp()).thenReturn("a1-42");
+
+        ResponseEntity<Page<SuperheroDto>> result = controller.findAll(null, 0, 20, null, webRequest("\"a1-42\""));
+
+        // Nothing is loaded once the stamp matches
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        Mockito.verify(service, Mockito.never()).findAll(Mockito.any());
+    }
+
+    @Test
+    public void givenOutdatedIfMatch_whenUpdateSuperhero_thenPreconditionFails() {
+        SuperheroDto superheroDto = new SuperheroDto(1L, "Spider-Man");
+
+        // A weak ETag can't match a version
+        Assertions.assertThrows(OptimisticLockingFailureException.class,
+                () -> controller.update(superheroDto, 1L, "W/\"3\""));
+        Mockito.verify(service, Mockito.never()).update(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void givenNonExistentSuperhero_whenFindById_thenStatus404() {
 
@@ -91,7 +131,7 @@ public class SuperheroControllerTest {
         Mockito.when(service.findById(1L)).thenReturn(Optional.empty());
 
         // Call the method and verify that exception is called
-        Assertions.assertThrows(IllegalArgumentException.class, () -> controller.findById(1L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> controller.findById(1L, webRequest(null)));
 
         // Verify that service is called
         Mockito.verify(service, Mockito.times(1)).findById(1L);
@@ -111,8 +151,8 @@ public class SuperheroControllerTest {
         // Make the method call
         ResponseEntity<SuperheroDto> result = controller.create(superheroDto);
 
-        // Verify that the response is as expected
-        org.junit.Assert.assertEquals(ResponseEntity.ok(superheroDto), result);
+        // Verify that the response is as expected, with the ETag of the new version
+        org.junit.Assert.assertEquals(ResponseEntity.ok().eTag("\"0\"").body(superheroDto), result);
 
         // Verify that the service and mapper methods were called as expected
         Mockito.verify(mapper, Mockito.times(1)).mapToEntity(superheroDto);
@@ -138,4 +178,11 @@ public class SuperheroControllerTest {
         Mockito.verify(service, Mockito.times(1)).create(superhero);
     }
 
+    private static WebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/superhero");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.dao.SuperheroJdbcDao;
+import com.example.superheroes.export.SuperheroExporter;
+import com.example.superheroes.model.Superhero;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class SuperheroExporterTest {
+
+    private SuperheroExporter exporter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        List<Superhero> superheroes = List.of(new Superhero(1L, "Spiderman"), new Superhero(2L, "Dr. \"Strange\", Stephen"));
+        SuperheroJdbcDao dao = Mockito.mock(SuperheroJdbcDao.class);
+        //The DAO hands every row to the consumer, as the JDBC cursor does
+        Mockito.when(dao.forEach(Mockito.any())).thenAnswer(invocation -> {
+            superheroes.forEach(invocation.<Consumer<Superhero>>getArgument(0));
+            return (long) superheroes.size();
+        });
+        exporter = new SuperheroExporter(dao, new ObjectMapper());
+    }
+
+    @Test
+    public void givenSuperheroes_whenExportNdjson_thenOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(2, exporter.export(SuperheroExporter.Format.NDJSON, out));
+        Assertions.assertEquals("{\"id\":1,\"name\":\"Spiderman\"}\n{\"id\":2,\"name\":\"Dr. \\\"Strange\\\", Stephen\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void givenSuperheroes_whenExportCsv_thenFieldsAreQuotedWhenNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(2, exporter.export(SuperheroExporter.Format.of("csv"), out));
+        Assertions.assertEquals("id,name\n1,Spiderman\n2,\"Dr. \"\"Strange\"\", Stephen\"\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void givenUnknownFormat_whenExport_thenThrowIllegalArgumentException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SuperheroExporter.Format.of("xml"));
+    }
+}
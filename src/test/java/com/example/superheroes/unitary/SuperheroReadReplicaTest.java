@@ -0,0 +1,93 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.SuperheroReadReplica;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SuperheroReadReplicaTest {
+
+    private SuperheroReadReplica replica;
+
+    @BeforeEach
+    public void setUp() {
+        replica = new SuperheroReadReplica(false);
+        replica.put(new Superhero(1L, "Spiderman"));
+        replica.put(new Superhero(2L, "Superman"));
+        replica.put(new Superhero(3L, "Manolito el fuerte"));
+    }
+
+    @Test
+    public void givenReplicatedSuperheroes_whenFindById_thenReturnThem() {
+        Superhero superhero = replica.findById(2L).orElseThrow();
+
+        Assertions.assertEquals(2L, superhero.getId());
+        Assertions.assertEquals("Superman", superhero.getName());
+        Assertions.assertTrue(replica.findById(4L).isEmpty());
+        Assertions.assertEquals(List.of("3:Manolito el fuerte", "1:Spiderman"),
+                idsAndNames(replica.findAllById(List.of(3L, 4L, 1L))));
+    }
+
+    @Test
+    public void givenUpdatedAndRemovedSuperheroes_whenFindById_thenReplicaIsUpdated() {
+        replica.put(new Superhero(2L, "Superman de Albacete", 1));
+        replica.remove(1L);
+
+        Assertions.assertTrue(replica.findById(1L).isEmpty());
+        Assertions.assertEquals("Superman de Albacete", replica.findById(2L).orElseThrow().getName());
+        Assertions.assertEquals(1L, replica.findById(2L).orElseThrow().getVersion());
+        Assertions.assertEquals("Manolito el fuerte", replica.findById(3L).orElseThrow().getName());
+        Assertions.assertEquals(2, replica.size());
+    }
+
+    @Test
+    public void givenReplicatedSuperheroes_whenFindAll_thenReturnPagesInIdOrder() {
+        Page<Superhero> page = replica.findAll(PageRequest.of(0, 2)).orElseThrow();
+        Page<Superhero> descending = replica.findAll(PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id"))).orElseThrow();
+
+        Assertions.assertEquals(List.of("1:Spiderman", "2:Superman"), idsAndNames(page.getContent()));
+        Assertions.assertEquals(3, page.getTotalElements());
+        Assertions.assertEquals(List.of("1:Spiderman"), idsAndNames(descending.getContent()));
+        Assertions.assertTrue(replica.findAll(PageRequest.of(0, 2, Sort.by("name"))).isEmpty());
+    }
+
+    @Test
+    public void givenReplicatedSuperheroes_whenSearch_thenReturnMatchingIdsIgnoringCase() {
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L}, replica.search("MAN"));
+        Assertions.assertArrayEquals(new long[0], replica.search("batman"));
+    }
+
+    @Test
+    public void givenManyWritesOffHeap_whenFindById_thenEveryLiveSuperheroIsFound() {
+        SuperheroReadReplica offHeap = new SuperheroReadReplica(true);
+        int size = 50_000;
+        for (long id = size; id >= 1; id--) {
+            offHeap.put(new Superhero(id, "Hero ñ" + id));
+        }
+        for (long id = 1; id <= size; id += 2) {
+            offHeap.remove(id);
+        }
+        for (long id = 2; id <= size; id += 4) {
+            offHeap.put(new Superhero(id, "Renamed " + id, 1));
+        }
+
+        Assertions.assertEquals(size / 2, offHeap.size());
+        for (long id = 1; id <= size; id++) {
+            String expected = id % 2 == 1 ? null : (id % 4 == 2 ? "Renamed " + id : "Hero ñ" + id);
+            Assertions.assertEquals(expected, offHeap.nameOf(id), "id " + id);
+        }
+        Assertions.assertEquals(List.of("2:Renamed 2", "4:Hero ñ4"),
+                idsAndNames(offHeap.findAll(PageRequest.of(0, 2)).orElseThrow().getContent()));
+    }
+
+    private static List<String> idsAndNames(List<Superhero> superheroes) {
+        return superheroes.stream().map(s -> s.getId() + ":" + s.getName()).collect(Collectors.toList());
+    }
+}
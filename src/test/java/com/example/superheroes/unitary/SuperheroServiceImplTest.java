@@ -1,25 +1,43 @@
 package com.example.superheroes.unitary;
 
+import com.example.superheroes.cache.SuperheroCache;
+import com.example.superheroes.config.CacheManagerConfig;
+import com.example.superheroes.config.SuperheroCacheProperties;
+import com.example.superheroes.dao.SuperheroJdbcDao;
 import com.example.superheroes.dao.SuperheroRepository;
 import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.SuperheroNameSearch;
+import com.example.superheroes.service.impl.SuperheroBatchWriter;
 import com.example.superheroes.service.impl.SuperheroServiceImpl;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 
 @SpringBootTest
@@ -28,11 +46,23 @@ public class SuperheroServiceImplTest {
     @Mock
     private SuperheroRepository repository;
 
-    @InjectMocks
+    @Mock
+    private SuperheroJdbcDao jdbcDao;
+
     private SuperheroServiceImpl service;
 
     @Autowired
     private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        //Every test starts with an empty cache so the repository calls can be counted
+        SuperheroCacheProperties properties = new SuperheroCacheProperties();
+        service = new SuperheroServiceImpl(repository, jdbcDao,
+                new SuperheroCache(new CacheManagerConfig().cacheManager(properties), properties),
+                new SuperheroNameSearch(repository, Optional.empty(), Optional.empty(), Optional.empty()), List.of(),
+                new SuperheroBatchWriter(repository, 500), Optional.empty());
+    }
     @Test
     public void givenListSuperhero_whenFindAllSuperhero_thenReturnOk() {
         // Configuration of test data
@@ -42,18 +72,19 @@ public class SuperheroServiceImplTest {
         superheroes.add(new Superhero(2L, "Superman"));
 
         //Call repository to return all superheroes
-        Mockito.when(repository.findAll(pageable)).thenReturn(new PageImpl<>(superheroes));
+        Mockito.when(repository.findAllBy(pageable)).thenReturn(new SliceImpl<>(superheroes, pageable, false));
 
         //Call service to return all superheroes, then the second time must return from cache not repository
         Page<Superhero> result = service.findAll(pageable);
 
         //Verify that repository was called just 1 time
-        Mockito.verify(repository, Mockito.times(1)).findAll(pageable);
+        Mockito.verify(repository, Mockito.times(1)).findAllBy(pageable);
 
         //Verify that the list size of superheroes created in configuration is the same that the size returned from service.
         Assertions.assertEquals(superheroes.size(), result.getTotalElements());
         //Verify that the list of superheroes created in configuration is the same that the superheroes returned from service.
-        Assertions.assertEquals(superheroes, result.getContent());
+        //The cache returns detached copies, so they are compared by id and name
+        Assertions.assertEquals(idsAndNames(superheroes), idsAndNames(result.getContent()));
 
     }
 
@@ -68,18 +99,19 @@ public class SuperheroServiceImplTest {
         superheroes.add(new Superhero(3L, "Manolito el fuerte"));
 
         //Call repository to return all superheroes by name
-        Mockito.when(repository.findAllByNameContainingIgnoreCase(name,pageable)).thenReturn(new PageImpl<>(superheroes));
+        Mockito.when(repository.findSliceByNameContainingIgnoreCase(name,pageable)).thenReturn(new SliceImpl<>(superheroes, pageable, false));
 
         //Call service to return all superheroes by name, then the second time must return from cache not repository
         Page<Superhero> result = service.findAllByName(name,pageable);
 
         //Verify that repository was called just 1 time
-        Mockito.verify(repository, Mockito.times(1)).findAllByNameContainingIgnoreCase(name,pageable);
+        Mockito.verify(repository, Mockito.times(1)).findSliceByNameContainingIgnoreCase(name,pageable);
 
         //Verify that the list size of superheroes created in configuration is the same that the size returned from service.
         Assertions.assertEquals(superheroes.size(), result.getTotalElements());
         //Verify that the list of superheroes created in configuration is the same that the superheroes returned from service.
-        Assertions.assertEquals(superheroes, result.getContent());
+        //The cache returns detached copies, so they are compared by id and name
+        Assertions.assertEquals(idsAndNames(superheroes), idsAndNames(result.getContent()));
 
     }
 
@@ -99,9 +131,235 @@ public class SuperheroServiceImplTest {
 
         //Verify the result returned from 2 calls to service methods are the same
         Assert.isTrue(result1.equals(result2), "The result1 must be equal to result2");
+        //Verify that repository was called just 1 time
+        Mockito.verify(repository, Mockito.times(1)).findById(superheroId);
+
+        // Also, we can verify if the caches are not null
+        Assert.notNull(cacheManager.getCache(SuperheroCache.BY_ID_CACHE), "Cache 'superheroById' mustn't null");
+        Assert.notNull(cacheManager.getCache(SuperheroCache.PAGES_CACHE), "Cache 'superheroPages' mustn't null");
+        Assert.notNull(cacheManager.getCache(SuperheroCache.SEARCH_CACHE), "Cache 'superheroSearch' mustn't null");
+    }
+
+    @Test
+    public void givenCachedSuperhero_whenDeleteById_thenItIsEvicted() {
+        // Configuration of test data
+        Long superheroId = 1L;
+        Superhero superhero = new Superhero(superheroId, "Spiderman");
+
+        //Configure repository to return the superhero
+        Mockito.when(repository.findById(superheroId)).thenReturn(Optional.of(superhero));
+
+        //Cache the superhero, then delete it
+        Assertions.assertTrue(service.findById(superheroId).isPresent());
+        service.deleteById(superheroId);
+        Mockito.when(repository.findById(superheroId)).thenReturn(Optional.empty());
+
+        //Verify that the entity found was the one deleted, and that the next read misses the cache
+        Mockito.verify(repository, Mockito.times(1)).delete(superhero);
+        Assertions.assertFalse(service.findById(superheroId).isPresent());
+        //Deleting it again fails, as the superhero doesn't exist anymore
+        Assertions.assertThrows(EmptyResultDataAccessException.class, () -> service.deleteById(superheroId));
+    }
+
+    @Test
+    public void givenCachedPage_whenUpdateSuperhero_thenPageIsReloaded() {
+        // Configuration of test data
+        Pageable pageable = PageRequest.of(0, 10);
+        Superhero superhero = new Superhero(1L, "Spiderman");
+        Superhero renamed = new Superhero(1L, "Spiderwoman");
+
+        //Configure repository to return the page before and after the update
+        Mockito.when(repository.findAllBy(pageable))
+                .thenReturn(new SliceImpl<>(List.of(superhero), pageable, false))
+                .thenReturn(new SliceImpl<>(List.of(renamed), pageable, false));
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(superhero));
+
+        //The first call caches the page, the second one must be served from cache
+        service.findAll(pageable);
+        service.findAll(pageable);
+        Mockito.verify(repository, Mockito.times(1)).findAllBy(pageable);
+
+        //Updating a superhero contained in the page must evict it and update the entry by id
+        service.update(1L, renamed);
+        Page<Superhero> result = service.findAll(pageable);
+
+        Mockito.verify(repository, Mockito.times(2)).findAllBy(pageable);
+        Assertions.assertEquals("Spiderwoman", result.getContent().get(0).getName());
+        Assertions.assertEquals("Spiderwoman", service.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    public void givenCountedSuperheroes_whenCreateSuperhero_thenTotalIsKeptWithoutCounting() {
+        // Configuration of test data
+        Pageable pageable = PageRequest.of(0, 1);
+        Superhero superhero = new Superhero(1L, "Spiderman");
+        Superhero created = new Superhero(3L, "Batman");
+
+        //Configure repository to return a first page that doesn't hold every superhero
+        Mockito.when(repository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(superhero), pageable, true));
+        Mockito.when(repository.count()).thenReturn(2L);
+        Mockito.when(jdbcDao.insertIfAbsent(3L, "Batman")).thenReturn(Optional.of(created));
+
+        //The first page needs the total, so the superheroes are counted once
+        Assertions.assertEquals(2, service.findAll(pageable).getTotalElements());
+
+        //Creating a superhero evicts the page and the counter is increased instead of counting again
+        service.create(created);
+        Assertions.assertEquals(3, service.findAll(pageable).getTotalElements());
+        Mockito.verify(repository, Mockito.times(2)).findAllBy(pageable);
+        Mockito.verify(repository, Mockito.times(1)).count();
+    }
+
+    @Test
+    public void givenNewSuperhero_whenCreateSuperhero_thenItIsCachedWithoutReadingIt() {
+        Mockito.when(jdbcDao.insertIfAbsent(-1L, "Batman")).thenReturn(Optional.of(new Superhero(7L, "Batman")));
+        Mockito.when(jdbcDao.insertIfAbsent(7L, "Batman")).thenReturn(Optional.empty());
+
+        Assertions.assertEquals(7L, service.create(new Superhero(-1L, "Batman")).orElseThrow().getId());
+        Assertions.assertEquals("Batman", service.findById(7L).orElseThrow().getName());
+        //A second creation with the new id is a conflict
+        Assertions.assertTrue(service.create(new Superhero(7L, "Batman")).isEmpty());
+
+        //The conditional insert is the only statement, neither the check nor the read back go to the repository
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void givenCachedSuperhero_whenFindAllById_thenOnlyMissesAreFetchedInOrder() {
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(new Superhero(1L, "Spiderman")));
+        Mockito.when(repository.findAllById(Mockito.anyCollection())).thenReturn(List.of(
+                new Superhero(2L, "Superman"), new Superhero(3L, "Manolito el fuerte")));
+        service.findById(1L);
+
+        List<Superhero> result = service.findAllById(List.of(3L, 1L, 4L, 2L));
+
+        //Id 1 is served from the cache, the others are fetched together and the missing id 4 is left out
+        Mockito.verify(repository, Mockito.times(1)).findAllById(Set.of(3L, 4L, 2L));
+        Assertions.assertEquals(List.of("3:Manolito el fuerte", "1:Spiderman", "2:Superman"), idsAndNames(result));
+
+        //Every id is now cached, even the missing one
+        Assertions.assertEquals(idsAndNames(result), idsAndNames(service.findAllById(List.of(3L, 1L, 4L, 2L))));
+        Mockito.verify(repository, Mockito.times(1)).findAllById(Mockito.anyCollection());
+    }
+
+    @Test
+    public void givenConcurrentMisses_whenFindById_thenRepositoryIsCalledOnce() throws Exception {
+        Long superheroId = 1L;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        //The first load blocks until every other caller is waiting for it
+        Mockito.when(repository.findById(superheroId)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(new Superhero(superheroId, "Spiderman"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Optional<Superhero>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> service.findById(superheroId)));
+            loading.await();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> service.findById(superheroId)));
+            }
+            //Gives the other callers time to join the load in progress
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Optional<Superhero>> result : results) {
+                Assertions.assertEquals("Spiderman", result.get().orElseThrow().getName());
+            }
+            Mockito.verify(repository, Mockito.times(1)).findById(superheroId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenLoadStoringWhileUpdated_whenFindById_thenUpdateIsNotOverwritten() throws Exception {
+        Long superheroId = 1L;
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SuperheroCacheProperties properties = new SuperheroCacheProperties();
+        CacheManager cacheManager = new CacheManagerConfig().cacheManager(properties);
+        //The first value stored by id blocks after the load has checked that no write happened
+        AtomicBoolean first = new AtomicBoolean(true);
+        CacheManager blockingCacheManager = new CacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                Cache cache = cacheManager.getCache(name);
+                if (!SuperheroCache.BY_ID_CACHE.equals(name)) {
+                    return cache;
+                }
+                return new TransactionAwareCacheDecorator(cache) {
+                    @Override
+                    public void put(Object key, Object value) {
+                        if (first.getAndSet(false)) {
+                            storing.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        super.put(key, value);
+                    }
+                };
+            }
+
+            @Override
+            public Collection<String> getCacheNames() {
+                return cacheManager.getCacheNames();
+            }
+        };
+        SuperheroServiceImpl racingService = new SuperheroServiceImpl(repository, jdbcDao,
+                new SuperheroCache(blockingCacheManager, properties),
+                new SuperheroNameSearch(repository, Optional.empty(), Optional.empty(), Optional.empty()), List.of(),
+                new SuperheroBatchWriter(repository, 500), Optional.empty());
+        Mockito.when(repository.findById(superheroId)).thenAnswer(invocation -> Optional.of(new Superhero(superheroId, "Spiderman")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<Superhero>> load = executor.submit(() -> racingService.findById(superheroId));
+            storing.await();
+            Future<Optional<Superhero>> update = executor.submit(() -> racingService.update(superheroId, new Superhero(superheroId, "Spider-Man")));
+            //Gives the update time to run its cache hook, which must wait for the store in progress
+            Thread.sleep(200);
+            release.countDown();
+
+            Assertions.assertEquals("Spiderman", load.get().orElseThrow().getName());
+            Assertions.assertEquals("Spider-Man", update.get().orElseThrow().getName());
+            //The value loaded before the update must not replace the updated one
+            Assertions.assertEquals("Spider-Man", racingService.findById(superheroId).orElseThrow().getName());
+            Mockito.verify(repository, Mockito.times(2)).findById(superheroId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenEntryDueForRefresh_whenFindById_thenItIsReloadedInBackground() {
+        SuperheroCacheProperties properties = new SuperheroCacheProperties();
+        properties.getById().setRefreshAfterWrite(Duration.ZERO);
+        SuperheroServiceImpl refreshingService = new SuperheroServiceImpl(repository, jdbcDao,
+                new SuperheroCache(new CacheManagerConfig().cacheManager(properties), properties),
+                new SuperheroNameSearch(repository, Optional.empty(), Optional.empty(), Optional.empty()), List.of(),
+                new SuperheroBatchWriter(repository, 500), Optional.empty());
+        Long superheroId = 1L;
+        Mockito.when(repository.findById(superheroId))
+                .thenReturn(Optional.of(new Superhero(superheroId, "Spiderman")))
+                .thenReturn(Optional.of(new Superhero(superheroId, "Spider-Man")));
+
+        refreshingService.findById(superheroId);
+        //The hit returns the cached value and reloads it in the background
+        Assertions.assertEquals("Spiderman", refreshingService.findById(superheroId).orElseThrow().getName());
+
+        Mockito.verify(repository, Mockito.timeout(1_000).times(2)).findById(superheroId);
+    }
 
-        // Also, we can verify if the cache is not null
-        Assert.notNull(cacheManager.getCache("superheroesCache"), "Cache 'superheroesCache' mustn't null");
+    private static List<String> idsAndNames(List<Superhero> superheroes) {
+        return superheroes.stream().map(s -> s.getId() + ":" + s.getName()).collect(Collectors.toList());
     }
 
 }
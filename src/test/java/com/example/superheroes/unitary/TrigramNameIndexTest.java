@@ -0,0 +1,44 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.model.Superhero;
+import com.example.superheroes.search.TrigramNameIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrigramNameIndexTest {
+
+    private TrigramNameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TrigramNameIndex();
+        index.put(new Superhero(1L, "Spiderman"));
+        index.put(new Superhero(2L, "Superman"));
+        index.put(new Superhero(3L, "Manolito el fuerte"));
+        index.put(new Superhero(4L, "Wonder Woman"));
+    }
+
+    @Test
+    public void givenIndexedNames_whenSearch_thenReturnMatchingIdsIgnoringCase() {
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, index.search("MAN"));
+        Assertions.assertArrayEquals(new long[]{1L, 2L}, index.search("erman"));
+        Assertions.assertArrayEquals(new long[0], index.search("batman"));
+    }
+
+    @Test
+    public void givenShortQuery_whenSearch_thenScanNames() {
+        Assertions.assertArrayEquals(new long[]{3L, 4L}, index.search("o"));
+    }
+
+    @Test
+    public void givenRenamedAndRemovedSuperheroes_whenSearch_thenIndexIsUpdated() {
+        index.put(new Superhero(2L, "Batman"));
+        index.remove(1L);
+
+        Assertions.assertArrayEquals(new long[]{2L}, index.search("batman"));
+        Assertions.assertArrayEquals(new long[0], index.search("super"));
+        Assertions.assertArrayEquals(new long[0], index.search("spider"));
+        Assertions.assertEquals(3, index.size());
+    }
+}
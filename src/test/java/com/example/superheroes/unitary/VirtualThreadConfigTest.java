@@ -0,0 +1,26 @@
+package com.example.superheroes.unitary;
+
+import com.example.superheroes.config.VirtualThreadConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class VirtualThreadConfigTest {
+
+    @Test
+    public void testVirtualThreadExecutorDependsOnRuntime() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            Assertions.assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+            return;
+        }
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<Boolean> virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            Assertions.assertTrue(virtual.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}